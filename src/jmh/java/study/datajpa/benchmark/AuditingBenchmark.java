@@ -0,0 +1,111 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+import study.datajpa.support.AuditClock;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 감사 콜백 비용 (10만 건 기준, 결과 단위 = 초당 건수)
+ * - perEntityCallbacks: 이전 방식, 엔티티마다 UUID.randomUUID() + LocalDateTime.now()
+ * - cachedCallbacks: 트랜잭션당 등록자 한 번 + flush당 시각 한 번 (100건마다 flush 가정)
+ * - insert: Team + Member 10만 건 실제 저장 (saveAllBatched)
+ *
+ * 실행: ./gradlew jmh -PjmhArgs="AuditingBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(AuditingBenchmark.ROWS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuditingBenchmark {
+
+    static final int ROWS = 100_000;
+    static final int FLUSH_INTERVAL = 100;
+
+    BenchmarkContext context;
+    AuditorAware<?> auditorAware;
+    TransactionTemplate tx;
+    MemberRepository memberRepository;
+    TeamRepository teamRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("auditing");
+        auditorAware = context.getBean(AuditorAware.class);
+        tx = context.transactionTemplate(false);
+        memberRepository = context.getBean(MemberRepository.class);
+        teamRepository = context.getBean(TeamRepository.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void truncate() {
+        context.jdbcTemplate().execute("truncate table member");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void perEntityCallbacks(Blackhole bh) {
+        for (int i = 0; i < ROWS; i++) {
+            bh.consume(UUID.randomUUID().toString());
+            bh.consume(LocalDateTime.now());
+        }
+    }
+
+    @Benchmark
+    public void cachedCallbacks(Blackhole bh) {
+        tx.execute(status -> {
+            for (int i = 0; i < ROWS; i++) {
+                bh.consume(auditorAware.getCurrentAuditor());
+                bh.consume(AuditClock.now());
+                if ((i + 1) % FLUSH_INTERVAL == 0) {
+                    AuditClock.flushCompleted();
+                }
+            }
+            return null;
+        });
+    }
+
+    @Benchmark
+    public int insert() {
+        List<Team> teams = new ArrayList<>();
+        List<Member> members = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            if (i % FLUSH_INTERVAL == 0) {
+                teams.add(new Team("team" + i));
+            }
+            members.add(new Member("member" + i, i % 100));
+        }
+        teamRepository.saveAllBatched(teams, FLUSH_INTERVAL);
+        return memberRepository.saveAllBatched(members, FLUSH_INTERVAL);
+    }
+}
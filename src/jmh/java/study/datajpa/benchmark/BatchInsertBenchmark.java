@@ -0,0 +1,118 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Member 100만 건 저장 속도 (결과 단위 = 초당 저장 건수)
+ * saveOneByOne 은 기존 init 처럼 save를 반복 (영속성 컨텍스트가 100만 건까지 커짐)
+ *
+ * 실행: ./gradlew jmh -PjmhArgs="BatchInsertBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(BatchInsertBenchmark.ROWS)
+@Warmup(iterations = 1, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class BatchInsertBenchmark {
+
+    static final int ROWS = 1_000_000;
+
+    @Param({"100", "1000"})
+    int batchSize;
+
+    @Param({"100"})
+    int teams;
+
+    BenchmarkContext context;
+    MemberRepository memberRepository;
+    TransactionTemplate tx;
+    List<Team> teamList;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("batch_insert",
+                "spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize);
+        memberRepository = context.getBean(MemberRepository.class);
+        tx = context.transactionTemplate(false);
+
+        teamList = new ArrayList<>();
+        for (int i = 0; i < teams; i++) {
+            teamList.add(new Team("team" + i));
+        }
+        context.getBean(TeamRepository.class).saveAllBatched(teamList, batchSize);
+    }
+
+    @Setup(Level.Invocation)
+    public void truncate() {
+        context.jdbcTemplate().execute("truncate table member");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int saveAllBatched() {
+        return memberRepository.saveAllBatched(members(), batchSize);
+    }
+
+    @Benchmark
+    public int saveOneByOne() {
+        return tx.execute(status -> {
+            int count = 0;
+            for (Member member : members()) {
+                memberRepository.save(member);
+                count++;
+            }
+            return count;
+        });
+    }
+
+    /**
+     * 100만 건을 미리 만들어 두지 않고 순회하면서 생성 (벤치마크 메모리에 데이터가 안 남게)
+     */
+    private Iterable<Member> members() {
+        return () -> new Iterator<Member>() {
+            int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                return i < ROWS;
+            }
+
+            @Override
+            public Member next() {
+                Member member = new Member("member" + i, i % 100);
+                member.setTeam(teamList.get(i % teamList.size()));
+                i++;
+                return member;
+            }
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package study.datajpa.benchmark;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.DataJpaApplication;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 벤치마크용 스프링 컨텍스트
+ * 웹 서버 없이 인메모리 H2로 띄우고, SQL 로그는 끄고 Hibernate 통계만 켬
+ */
+public class BenchmarkContext implements AutoCloseable {
+
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkContext(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    /**
+     * @param database   인메모리 DB 이름 (벤치마크끼리 섞이지 않게)
+     * @param properties 추가로 덮어쓸 설정 ("key=value")
+     */
+    public static BenchmarkContext start(String database, String... properties) {
+        List<String> args = new ArrayList<>(Arrays.asList(
+                "--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.properties.hibernate.generate_statistics=true",
+                "--decorator.datasource.p6spy.enable-logging=false",
+                "--logging.level.root=warn",
+                "--logging.level.org.hibernate.SQL=warn",
+                "--logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn"
+        ));
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(DataJpaApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(new String[0]));
+        return new BenchmarkContext(context);
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public JdbcTemplate jdbcTemplate() {
+        return getBean(JdbcTemplate.class);
+    }
+
+    public TransactionTemplate transactionTemplate(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(getBean(PlatformTransactionManager.class));
+        template.setReadOnly(readOnly);
+        return template;
+    }
+
+    public Statistics statistics() {
+        return getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,57 @@
+package study.datajpa.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 벤치마크 데이터 적재
+ * JPA로 한 건씩 넣으면 적재 시간이 벤치마크보다 오래 걸려서 JDBC 배치로 직접 넣음
+ */
+public final class BenchmarkData {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int ALLOCATION_SIZE = 50;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * team_id 1..teams, member_id teams+1..teams+members
+     * username은 "member{n}" (유일), age는 0~99 순환
+     */
+    public static void seedMembers(JdbcTemplate jdbcTemplate, int teams, int members) {
+        List<Object[]> teamRows = new ArrayList<>();
+        for (int i = 1; i <= teams; i++) {
+            teamRows.add(new Object[]{(long) i, "team" + i});
+        }
+        jdbcTemplate.batchUpdate("insert into team (team_id, name) values (?, ?)", teamRows);
+
+        List<Object[]> memberRows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < members; i++) {
+            Long teamId = teams == 0 ? null : (long) (i % teams) + 1;
+            memberRows.add(new Object[]{(long) teams + i + 1, "member" + i, i % 100, teamId});
+            if (memberRows.size() == BATCH_SIZE) {
+                insertMembers(jdbcTemplate, memberRows);
+                memberRows.clear();
+            }
+        }
+        insertMembers(jdbcTemplate, memberRows);
+
+        // 직접 넣은 id와 JPA가 새로 발급하는 id가 겹치지 않게 시퀀스를 뒤로 미룸
+        // pooled 최적화는 시퀀스 값 아래로 allocationSize 만큼을 쓰기 때문에 그만큼 더 띄움
+        restartSequence(jdbcTemplate, "team_seq", teams);
+        restartSequence(jdbcTemplate, "member_seq", teams + members);
+    }
+
+    private static void restartSequence(JdbcTemplate jdbcTemplate, String sequence, long maxId) {
+        jdbcTemplate.execute("alter sequence " + sequence + " restart with " + (maxId + ALLOCATION_SIZE + 1));
+    }
+
+    private static void insertMembers(JdbcTemplate jdbcTemplate, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("insert into member (member_id, username, age, team_id, version) values (?, ?, ?, ?, 0)", rows);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.support.OptimisticLockRetry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 같은 username 행을 여러 스레드가 동시에 수정할 때 처리량 비교
+ * - pessimisticWrite: findLockByUsername (select ... for update, 직렬화)
+ * - optimisticRetry: @Version + OptimisticLockRetry (충돌 시 백오프 후 재시도)
+ * - skipLocked: 큐 소비자처럼 잠기지 않은 행 하나만 가져가서 수정
+ *
+ * 실행: ./gradlew jmh -PjmhArgs="ContentionBenchmark"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContentionBenchmark {
+
+    static final String HOT = "hot";
+    static final String QUEUE = "queue";
+
+    BenchmarkContext context;
+    MemberRepository memberRepository;
+    OptimisticLockRetry optimisticLockRetry;
+    TransactionTemplate tx;
+    Long hotId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("contention",
+                "spring.datasource.hikari.maximum-pool-size=16",
+                "datajpa.optimistic-retry.max-attempts=100");
+        memberRepository = context.getBean(MemberRepository.class);
+        optimisticLockRetry = context.getBean(OptimisticLockRetry.class);
+        tx = context.transactionTemplate(false);
+
+        hotId = memberRepository.save(new Member(HOT, 0)).getId();
+
+        List<Member> queue = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            queue.add(new Member(QUEUE, 0));
+        }
+        memberRepository.saveAllBatched(queue, 32);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int pessimisticWrite() {
+        return tx.execute(status -> {
+            Member member = memberRepository.findLockByUsername(HOT).get(0);
+            member.setAge(member.getAge() + 1);
+            return member.getAge();
+        });
+    }
+
+    @Benchmark
+    public int optimisticRetry() {
+        return optimisticLockRetry.execute(() -> {
+            Member member = memberRepository.findById(hotId).get();
+            member.setAge(member.getAge() + 1);
+            return member.getAge();
+        });
+    }
+
+    @Benchmark
+    public int skipLocked() {
+        return tx.execute(status -> {
+            List<Member> available = memberRepository.findSkipLockedByUsername(QUEUE, PageRequest.of(0, 1));
+            if (available.isEmpty()) {
+                return 0;
+            }
+            Member member = available.get(0);
+            member.setAge(member.getAge() + 1);
+            return member.getAge();
+        });
+    }
+}
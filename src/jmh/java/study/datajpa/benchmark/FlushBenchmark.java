@@ -0,0 +1,124 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원 members명을 영속 상태로 올리고 modified명만 수정했을 때 flush 비용
+ * 바이트코드 향상(dirty tracking) 유무 비교는 빌드 옵션으로 두 번 실행
+ *
+ * 실행: ./gradlew jmh -PjmhArgs="FlushBenchmark"
+ *      ./gradlew clean jmh -PnoEnhance -PjmhArgs="FlushBenchmark"
+ *
+ * 로딩 후 남는 힙: retainedBytes / loadedEntities = 영속 엔티티 하나당 바이트 (엔티티 + 스냅샷 + 엔트리)
+ * 로딩 전후로 GC를 돌려서 사용 중인 힙 차이를 잼 (2차 캐시는 꺼서 캐시 항목이 섞이지 않게 함)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FlushBenchmark {
+
+    @Param({"10000"})
+    int members;
+
+    @Param({"10"})
+    int modified;
+
+    BenchmarkContext context;
+    PlatformTransactionManager transactionManager;
+    EntityManager em;
+
+    TransactionStatus transaction;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class HeapCounters {
+
+        public long retainedBytes;
+        public long loadedEntities;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            retainedBytes = 0;
+            loadedEntities = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("flush",
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                "spring.jpa.properties.hibernate.cache.use_query_cache=false");
+        BenchmarkData.seedMembers(context.jdbcTemplate(), 100, members);
+
+        transactionManager = context.getBean(PlatformTransactionManager.class);
+        em = context.getBean(EntityManager.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * 트랜잭션을 열고 전체 회원 로딩 후 일부만 수정 (측정 제외)
+     */
+    @Setup(Level.Invocation)
+    public void load(HeapCounters counters) {
+        transaction = transactionManager.getTransaction(new DefaultTransactionDefinition());
+
+        long before = usedHeapAfterGc();
+        List<Member> loaded = em.createQuery("select m from Member m", Member.class)
+                .setMaxResults(members)
+                .getResultList();
+        counters.retainedBytes += usedHeapAfterGc() - before;
+        counters.loadedEntities += loaded.size();
+
+        for (int i = 0; i < modified && i < loaded.size(); i++) {
+            Member member = loaded.get(i * (loaded.size() / modified));
+            member.setAge(member.getAge() + 1);
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void rollback() {
+        em.clear();
+        transactionManager.rollback(transaction);
+    }
+
+    @Benchmark
+    public void flush() {
+        em.flush();
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        memory.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,116 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.repository.MemberJpaRepository;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Member 인덱스 유무에 따른 조회 비교 (indexes=false 이면 username, (age, username) 인덱스를 지우고 측정)
+ * team_id 인덱스는 FK 제약조건이 사용하므로 지우지 않음
+ * 쿼리 캐시에 걸리지 않게 매번 다른 username으로 조회
+ *
+ * 실행: ./gradlew jmh -PjmhArgs="MemberIndexBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MemberIndexBenchmark {
+
+    @Param({"1000000"})
+    int members;
+
+    @Param({"true", "false"})
+    boolean indexes;
+
+    BenchmarkContext context;
+    MemberRepository memberRepository;
+    MemberJpaRepository memberJpaRepository;
+    EntityManager em;
+    TransactionTemplate readOnlyTx;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("member_index",
+                "spring.jpa.properties.hibernate.cache.use_query_cache=false");
+        BenchmarkData.seedMembers(context.jdbcTemplate(), 100, members);
+
+        JdbcTemplate jdbcTemplate = context.jdbcTemplate();
+        if (!indexes) {
+            jdbcTemplate.execute("drop index idx_member_username");
+            jdbcTemplate.execute("drop index idx_member_age_username");
+        }
+        jdbcTemplate.execute("analyze");
+
+        memberRepository = context.getBean(MemberRepository.class);
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+        em = context.getBean(EntityManager.class);
+        readOnlyTx = context.transactionTemplate(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object findByUsername() {
+        return inReadOnlyTx(() -> memberRepository.findByUsername(randomUsername()));
+    }
+
+    @Benchmark
+    public Object findByNames() {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            names.add(randomUsername());
+        }
+        return inReadOnlyTx(() -> memberRepository.findByNames(names));
+    }
+
+    @Benchmark
+    public Object findByPage() {
+        int age = ThreadLocalRandom.current().nextInt(100);
+        return inReadOnlyTx(() -> memberJpaRepository.findByPage(age, 0, 10));
+    }
+
+    @Benchmark
+    public long totalCount() {
+        int age = ThreadLocalRandom.current().nextInt(100);
+        return inReadOnlyTx(() -> memberJpaRepository.totalCount(age));
+    }
+
+    private String randomUsername() {
+        return "member" + ThreadLocalRandom.current().nextInt(members);
+    }
+
+    private <T> T inReadOnlyTx(Supplier<T> call) {
+        return readOnlyTx.execute(status -> {
+            T value = call.get();
+            em.clear();
+            return value;
+        });
+    }
+}
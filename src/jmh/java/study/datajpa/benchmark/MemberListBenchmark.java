@@ -0,0 +1,74 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /members 방식 비교: 엔티티 조회 후 DTO 변환 vs DTO 프로젝션
+ * 컨트롤러처럼 트랜잭션 없이 호출 (리포지토리가 읽기 전용 트랜잭션을 염)
+ * 할당량은 -prof gc 의 gc.alloc.rate.norm (호출당 바이트)
+ *
+ * 실행: ./gradlew jmh -PjmhArgs="MemberListBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MemberListBenchmark {
+
+    @Param({"20", "2000"})
+    int pageSize;
+
+    BenchmarkContext context;
+    MemberRepository memberRepository;
+    PageRequest pageRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("member_list");
+        BenchmarkData.seedMembers(context.jdbcTemplate(), 100, 100_000);
+
+        memberRepository = context.getBean(MemberRepository.class);
+        pageRequest = PageRequest.of(10, pageSize, Sort.by(Sort.Direction.DESC, "username"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * 이전 /members 방식 (teamName은 채우지 않았음)
+     */
+    @Benchmark
+    public Page<MemberDto> entityThenMap() {
+        Page<Member> page = memberRepository.findAll(pageRequest);
+        return page.map(member -> new MemberDto(member.getId(), member.getUsername(), null));
+    }
+
+    @Benchmark
+    public Page<MemberDto> projection() {
+        return memberRepository.findMemberDto(pageRequest);
+    }
+}
@@ -0,0 +1,144 @@
+package study.datajpa.benchmark;
+
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberJpaRepository;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 같은 데이터를 읽는 MemberRepository 조회 방식 비교
+ * 할당량은 -prof gc, SQL 실행 수는 statements / invocations 로 확인
+ * 캐시 힌트가 붙은 메서드만 캐시에서 나오지 않도록 쿼리 캐시, 2차 캐시는 끔 (모두 DB 조회로 비교)
+ *
+ * 실행: ./gradlew jmh -PjmhArgs="MemberQueryBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MemberQueryBenchmark {
+
+    @Param({"10000"})
+    int members;
+
+    @Param({"100"})
+    int teams;
+
+    BenchmarkContext context;
+    MemberRepository memberRepository;
+    MemberJpaRepository memberJpaRepository;
+    EntityManager em;
+    TransactionTemplate readOnlyTx;
+    Statistics statistics;
+
+    String username;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("member_query",
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                "spring.jpa.properties.hibernate.cache.use_query_cache=false");
+        BenchmarkData.seedMembers(context.jdbcTemplate(), teams, members);
+
+        memberRepository = context.getBean(MemberRepository.class);
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+        em = context.getBean(EntityManager.class);
+        readOnlyTx = context.transactionTemplate(true);
+        statistics = context.statistics();
+
+        username = "member" + (members / 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void derivedQuery(StatementCounters counters, Blackhole bh) {
+        bh.consume(measure(counters, () -> memberRepository.findByUsernameAndAgeGreaterThan(username, 0)));
+    }
+
+    @Benchmark
+    public void namedQuery(StatementCounters counters, Blackhole bh) {
+        bh.consume(measure(counters, () -> memberRepository.findByUsername(username)));
+    }
+
+    @Benchmark
+    public void inlineQuery(StatementCounters counters, Blackhole bh) {
+        int age = (members / 2) % 100;
+        bh.consume(measure(counters, () -> memberRepository.findUser(username, age)));
+    }
+
+    @Benchmark
+    public void lazyTeamAccess(StatementCounters counters, Blackhole bh) {
+        bh.consume(measure(counters, () -> touchTeams(memberRepository.findAll())));
+    }
+
+    @Benchmark
+    public void fetchJoin(StatementCounters counters, Blackhole bh) {
+        bh.consume(measure(counters, () -> touchTeams(memberRepository.findMemberFetchJoin())));
+    }
+
+    @Benchmark
+    public void entityGraph(StatementCounters counters, Blackhole bh) {
+        bh.consume(measure(counters, () -> touchTeams(memberRepository.findEntityGraphByUsername(username))));
+    }
+
+    @Benchmark
+    public void readOnlyHint(StatementCounters counters, Blackhole bh) {
+        bh.consume(measure(counters, () -> memberRepository.findReadOnlyByUsername(username)));
+    }
+
+    @Benchmark
+    public void pureJpa(StatementCounters counters, Blackhole bh) {
+        bh.consume(measure(counters, () -> memberJpaRepository.findByUsername(username)));
+    }
+
+    /**
+     * 같은 조건에서 비교하기 위해 모두 읽기 전용 트랜잭션 안에서 실행
+     * 끝나면 영속성 컨텍스트를 비워서 다음 호출에 1차 캐시가 남지 않게 함
+     */
+    private <T> T measure(StatementCounters counters, Supplier<T> call) {
+        long before = statistics.getPrepareStatementCount();
+        T result = readOnlyTx.execute(status -> {
+            T value = call.get();
+            em.clear();
+            return value;
+        });
+        counters.record(statistics.getPrepareStatementCount() - before);
+        return result;
+    }
+
+    private static int touchTeams(List<Member> result) {
+        int hash = 0;
+        for (Member member : result) {
+            if (member.getTeam() != null) {
+                hash += member.getTeam().getName().hashCode();
+            }
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,106 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /members 의 offset Page 방식과 키셋(seek) 방식 비교
+ * page 가 깊어질수록 offset 방식은 느려지고 키셋 방식은 거의 일정해야 함
+ *
+ * 실행: ./gradlew jmh -PjmhArgs="PaginationBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PaginationBenchmark {
+
+    @Param({"1000000"})
+    int members;
+
+    @Param({"0", "1000", "10000"})
+    int page;
+
+    @Param({"20"})
+    int size;
+
+    BenchmarkContext context;
+    MemberRepository memberRepository;
+    EntityManager em;
+    TransactionTemplate readOnlyTx;
+
+    String cursorUsername;
+    Long cursorId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("pagination");
+        BenchmarkData.seedMembers(context.jdbcTemplate(), 0, members);
+
+        memberRepository = context.getBean(MemberRepository.class);
+        em = context.getBean(EntityManager.class);
+        readOnlyTx = context.transactionTemplate(true);
+
+        // 같은 깊이의 페이지를 키셋으로 읽기 위해 직전 페이지 마지막 행을 커서로 사용
+        if (page > 0) {
+            Map<String, Object> last = context.jdbcTemplate().queryForMap(
+                    "select username, member_id from member order by username desc, member_id desc limit 1 offset ?",
+                    page * size - 1);
+            cursorUsername = (String) last.get("USERNAME");
+            cursorId = ((Number) last.get("MEMBER_ID")).longValue();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<MemberDto> offset() {
+        PageRequest pageRequest = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "username"));
+        return readOnlyTx.execute(status -> {
+            Page<Member> result = memberRepository.findAll(pageRequest);
+            Page<MemberDto> dtos = result.map(member -> new MemberDto(member.getId(), member.getUsername(), null));
+            em.clear();
+            return dtos;
+        });
+    }
+
+    @Benchmark
+    public Slice<Member> keyset() {
+        PageRequest pageRequest = PageRequest.of(0, size);
+        return readOnlyTx.execute(status -> {
+            Slice<Member> result = cursorId == null
+                    ? memberRepository.findFirstKeysetPage(pageRequest)
+                    : memberRepository.findKeysetPageAfter(cursorUsername, cursorId, pageRequest);
+            em.clear();
+            return result;
+        });
+    }
+}
@@ -0,0 +1,126 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberReadRepository;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 쓰기 트랜잭션 안에서 전체 회원(팀 fetch join)을 조회해 둔 상태의 flush 비용과 남는 힙
+ * MemberRepository(스냅샷 + dirty check) vs MemberReadRepository(읽기 전용, 스냅샷 없음, flush 대상 아님)
+ * 하이버네이트 5.4는 읽기 전용이어도 로딩할 때 스냅샷 배열을 만들었다가 버리므로 호출당 할당량(gc.alloc.rate.norm)으로는 차이가 안 보임
+ * 바이트코드 향상(dirty tracking) 유무 비교는 빌드 옵션으로 두 번 실행
+ *
+ * 실행: ./gradlew jmh -PjmhArgs="ReadOnlyRepositoryBenchmark"
+ *      ./gradlew clean jmh -PnoEnhance -PjmhArgs="ReadOnlyRepositoryBenchmark"
+ *
+ * 로딩 후 남는 힙: retainedBytes / loadedEntities = 로딩한 회원 하나당 바이트 (FlushBenchmark와 같은 방식)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ReadOnlyRepositoryBenchmark {
+
+    @Param({"10000"})
+    int members;
+
+    @Param({"memberRepository", "memberReadRepository"})
+    String repository;
+
+    BenchmarkContext context;
+    PlatformTransactionManager transactionManager;
+    MemberRepository memberRepository;
+    MemberReadRepository memberReadRepository;
+    EntityManager em;
+
+    TransactionStatus transaction;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class HeapCounters {
+
+        public long retainedBytes;
+        public long loadedEntities;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            retainedBytes = 0;
+            loadedEntities = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("read_only_repository",
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                "spring.jpa.properties.hibernate.cache.use_query_cache=false");
+        BenchmarkData.seedMembers(context.jdbcTemplate(), 100, members);
+
+        transactionManager = context.getBean(PlatformTransactionManager.class);
+        memberRepository = context.getBean(MemberRepository.class);
+        memberReadRepository = context.getBean(MemberReadRepository.class);
+        em = context.getBean(EntityManager.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * 쓰기 트랜잭션을 열고 전체 회원 로딩 (측정 제외)
+     */
+    @Setup(Level.Invocation)
+    public void load(HeapCounters counters) {
+        transaction = transactionManager.getTransaction(new DefaultTransactionDefinition());
+
+        long before = usedHeapAfterGc();
+        List<Member> loaded = "memberReadRepository".equals(repository)
+                ? memberReadRepository.findMemberFetchJoin()
+                : memberRepository.findMemberFetchJoin();
+        counters.retainedBytes += usedHeapAfterGc() - before;
+        counters.loadedEntities += loaded.size();
+    }
+
+    @TearDown(Level.Invocation)
+    public void rollback() {
+        em.clear();
+        transactionManager.rollback(transaction);
+    }
+
+    @Benchmark
+    public void flush() {
+        em.flush();
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        memory.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
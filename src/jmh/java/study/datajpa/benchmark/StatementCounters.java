@@ -0,0 +1,30 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 벤치마크 결과에 SQL 실행 횟수를 같이 출력
+ * statements / invocations = 호출 한 번당 실행된 SQL 수
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+public class StatementCounters {
+
+    public long statements;
+    public long invocations;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        statements = 0;
+        invocations = 0;
+    }
+
+    public void record(long statementCount) {
+        statements += statementCount;
+        invocations++;
+    }
+}
@@ -0,0 +1,85 @@
+package study.datajpa.benchmark;
+
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Team 2차 캐시 유무에 따른 SELECT 수 비교
+ * 회원 한 페이지를 읽고 member.team 프록시를 초기화 -> 캐시가 있으면 팀 SELECT가 사라짐
+ *
+ * 실행: ./gradlew jmh -PjmhArgs="TeamCacheBenchmark"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TeamCacheBenchmark {
+
+    @Param({"true", "false"})
+    boolean secondLevelCache;
+
+    @Param({"100"})
+    int pageSize;
+
+    @Param({"20"})
+    int teams;
+
+    BenchmarkContext context;
+    MemberRepository memberRepository;
+    EntityManager em;
+    TransactionTemplate readOnlyTx;
+    Statistics statistics;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("team_cache",
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache);
+        BenchmarkData.seedMembers(context.jdbcTemplate(), teams, 10_000);
+
+        memberRepository = context.getBean(MemberRepository.class);
+        em = context.getBean(EntityManager.class);
+        readOnlyTx = context.transactionTemplate(true);
+        statistics = context.statistics();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int loadPageWithTeams(StatementCounters counters) {
+        long before = statistics.getPrepareStatementCount();
+        Integer hash = readOnlyTx.execute(status -> {
+            int h = 0;
+            for (Member member : memberRepository.findAll(PageRequest.of(0, pageSize))) {
+                h += member.getTeam().getName().hashCode();
+            }
+            em.clear();
+            return h;
+        });
+        counters.record(statistics.getPrepareStatementCount() - before);
+        return hash;
+    }
+}
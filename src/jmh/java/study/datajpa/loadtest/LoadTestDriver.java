@@ -0,0 +1,156 @@
+package study.datajpa.loadtest;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.datajpa.DataJpaApplication;
+import study.datajpa.support.LatencyHistogram;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * REST 엔드포인트를 고정 동시성(closed loop)으로 호출하고 엔드포인트별 처리량, 지연 시간 백분위 출력
+ * base-url을 주지 않으면 loadtest 프로필로 애플리케이션을 직접 띄움 (데이터 생성 포함)
+ *
+ * 실행: ./gradlew loadTest -PloadTestArgs="--concurrency=32 --duration=60s"
+ * 옵션: --base-url, --concurrency(16), --warmup(10s), --duration(30s), --endpoints(콤마 구분, {id}는 임의 회원 id)
+ */
+public class LoadTestDriver {
+
+    private static final String DEFAULT_ENDPOINTS =
+            "/members?page=1&size=20,/members?page=500&size=20,/members/keyset?size=20,/members/async?page=1&size=20,/members/{id}";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "16"));
+        Duration warmup = Duration.parse("PT" + options.getOrDefault("warmup", "10s"));
+        Duration duration = Duration.parse("PT" + options.getOrDefault("duration", "30s"));
+        List<String> endpoints = Arrays.asList(options.getOrDefault("endpoints", DEFAULT_ENDPOINTS).split(","));
+
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.get("base-url");
+        long minId = Long.parseLong(options.getOrDefault("min-id", "1"));
+        long maxId = Long.parseLong(options.getOrDefault("max-id", "1"));
+        if (baseUrl == null) {
+            context = new SpringApplicationBuilder(DataJpaApplication.class)
+                    .profiles("loadtest")
+                    .run("--server.port=0");
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            minId = jdbcTemplate.queryForObject("select coalesce(min(member_id), 1) from member", Long.class);
+            maxId = jdbcTemplate.queryForObject("select coalesce(max(member_id), 1) from member", Long.class);
+        }
+
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        for (String endpoint : endpoints) {
+            stats.put(endpoint, new EndpointStats());
+        }
+
+        long startNanos = System.nanoTime();
+        long measureFrom = startNanos + warmup.toNanos();
+        long deadline = measureFrom + duration.toNanos();
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            String base = baseUrl;
+            long idFrom = minId;
+            long idTo = maxId;
+            workers.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    String endpoint = endpoints.get(random.nextInt(endpoints.size()));
+                    String path = endpoint.replace("{id}", String.valueOf(random.nextLong(idFrom, idTo + 1)));
+                    long begin = System.nanoTime();
+                    boolean ok = call(base + path);
+                    long end = System.nanoTime();
+                    if (begin >= measureFrom && end <= deadline) {
+                        stats.get(endpoint).record(end - begin, ok);
+                    }
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(warmup.plus(duration).getSeconds() + 60, TimeUnit.SECONDS);
+
+        report(stats, duration, concurrency);
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    private static boolean call(String url) {
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL(url).openConnection();
+            int status = connection.getResponseCode();
+            InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+            if (body != null) {
+                try (InputStream in = body) {
+                    byte[] buffer = new byte[8192];
+                    while (in.read(buffer) != -1) {
+                        // 응답을 끝까지 읽어야 keep-alive 커넥션이 재사용됨
+                    }
+                }
+            }
+            return status < 400;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void report(Map<String, EndpointStats> stats, Duration duration, int concurrency) {
+        double seconds = duration.toNanos() / 1e9;
+        System.out.printf("%nconcurrency=%d, duration=%ss%n", concurrency, duration.getSeconds());
+        System.out.printf("%-45s %10s %8s %10s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50(ms)", "p90(ms)", "p99(ms)", "max(ms)");
+        for (Map.Entry<String, EndpointStats> entry : stats.entrySet()) {
+            LatencyHistogram latency = entry.getValue().latency;
+            System.out.printf("%-45s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey(),
+                    latency.getCount(),
+                    entry.getValue().errors.sum(),
+                    latency.getCount() / seconds,
+                    latency.percentileNanos(50) / 1e6,
+                    latency.percentileNanos(90) / 1e6,
+                    latency.percentileNanos(99) / 1e6,
+                    latency.getMaxNanos() / 1e6);
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                int idx = arg.indexOf('=');
+                options.put(arg.substring(2, idx), arg.substring(idx + 1));
+            }
+        }
+        return options;
+    }
+
+    private static class EndpointStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+
+        void record(long nanos, boolean ok) {
+            latency.record(nanos);
+            if (!ok) {
+                errors.increment();
+            }
+        }
+    }
+}
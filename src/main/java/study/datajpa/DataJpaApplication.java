@@ -2,29 +2,30 @@ package study.datajpa;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
-import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import study.datajpa.support.TransactionScopedAuditorAware;
 
-import java.util.Optional;
 import java.util.UUID;
 
-@EnableJpaAuditing
+@EnableJpaAuditing(dateTimeProviderRef = "auditingDateTimeProvider")
 @SpringBootApplication
 public class DataJpaApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(DataJpaApplication.class, args);
+        // 시작 단계별 소요 시간 기록 (StartupTimingReport)
+        SpringApplication application = new SpringApplication(DataJpaApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(10000));
+        application.run(args);
     }
 
+    /**
+     * 등록자는 트랜잭션당 한 번만 구함 (엔티티마다 UUID 생성 X)
+     */
     @Bean
     public AuditorAware<String> auditorAware(){
-        return new AuditorAware<String>() {
-            @Override
-            public Optional<String> getCurrentAuditor() {
-                return Optional.of(UUID.randomUUID().toString());
-            }
-        };
+        return new TransactionScopedAuditorAware<>(() -> UUID.randomUUID().toString());
     }
 }
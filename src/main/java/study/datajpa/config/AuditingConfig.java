@@ -0,0 +1,28 @@
+package study.datajpa.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.auditing.DateTimeProvider;
+import study.datajpa.support.AuditClock;
+import study.datajpa.support.AuditClockInterceptor;
+
+import java.util.Optional;
+
+/**
+ * @CreatedDate/@LastModifiedDate도 AuditClock 시각을 쓰게 함 (@EnableJpaAuditing의 dateTimeProviderRef)
+ */
+@Configuration
+public class AuditingConfig {
+
+    @Bean
+    public DateTimeProvider auditingDateTimeProvider() {
+        return () -> Optional.of(AuditClock.now());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer auditClockInterceptorCustomizer() {
+        return properties -> properties.put(AvailableSettings.INTERCEPTOR, new AuditClockInterceptor());
+    }
+}
@@ -0,0 +1,46 @@
+package study.datajpa.config;
+
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.ehcache.xml.XmlConfiguration;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.net.URL;
+import java.util.UUID;
+
+/**
+ * 2차 캐시 CacheManager (리전별 크기/TTL은 ehcache.xml)
+ * JCache 프로바이더는 URI + 클래스로더마다 CacheManager를 하나만 만들어서 같은 JVM의 스프링 컨텍스트끼리 리전을 공유함
+ * (테스트/벤치마크에서 다른 DB를 쓰는 컨텍스트의 같은 id 엔티티가 섞임)
+ * 컨텍스트마다 고유 URI로 CacheManager를 만들어 세션 팩토리에 직접 넘기고 컨텍스트 종료 시 닫음
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "spring.jpa.properties.hibernate.cache", name = "use_second_level_cache", havingValue = "true")
+public class CacheConfig {
+
+    private static final String CONFIG_RESOURCE = "ehcache.xml";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        ClassLoader classLoader = getClass().getClassLoader();
+        URL config = classLoader.getResource(CONFIG_RESOURCE);
+        if (config == null) {
+            throw new IllegalStateException(CONFIG_RESOURCE + " not found on classpath");
+        }
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(
+                EhcacheCachingProvider.class.getName(), classLoader);
+        URI uri = URI.create("urn:datajpa:cache:" + UUID.randomUUID());
+        return provider.getCacheManager(uri, new XmlConfiguration(config, classLoader));
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+}
@@ -0,0 +1,31 @@
+package study.datajpa.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import study.datajpa.support.DataGenerator;
+
+/**
+ * loadtest 프로필이면 시작할 때 datajpa.generator 설정만큼 데이터 생성 (application-loadtest.yml)
+ */
+@Profile("loadtest")
+@Configuration
+public class LoadTestDataConfig {
+
+    @Bean
+    public ApplicationRunner dataGeneratorRunner(
+            DataGenerator dataGenerator,
+            @Value("${datajpa.generator.teams}") int teams,
+            @Value("${datajpa.generator.members}") int members,
+            @Value("${datajpa.generator.items}") int items,
+            @Value("${datajpa.generator.team-skew}") double teamSkew,
+            @Value("${datajpa.generator.username-count}") int usernameCount,
+            @Value("${datajpa.generator.username-skew}") double usernameSkew,
+            @Value("${datajpa.generator.no-team-ratio}") double noTeamRatio,
+            @Value("${datajpa.generator.seed}") long seed) {
+        return args -> dataGenerator.generate(teams, members, items, teamSkew,
+                usernameCount, usernameSkew, noTeamRatio, seed);
+    }
+}
@@ -0,0 +1,42 @@
+package study.datajpa.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.TaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import study.datajpa.support.RepositoryExecutor;
+import study.datajpa.support.SqlStatementCounter;
+
+/**
+ * @Async("repositoryExecutor") 리포지토리 메서드 실행용 executor
+ * 커넥션을 못 얻어서 기다리는 스레드가 생기지 않게 동시 실행 수를 커넥션 풀 크기에 맞춤
+ */
+@EnableAsync
+@Configuration
+public class RepositoryAsyncConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public RepositoryExecutor repositoryExecutor(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            @Value("${datajpa.async.queue-capacity:100}") int queueCapacity,
+            @Value("${datajpa.async.virtual-threads:false}") boolean virtualThreads) {
+        return new RepositoryExecutor(poolSize, queueCapacity, virtualThreads);
+    }
+
+    /**
+     * Executor 빈을 직접 등록하면 스프링 부트 기본 applicationTaskExecutor가 만들어지지 않음
+     * MVC 비동기 응답(StreamingResponseBody)과 기본 @Async용으로 부트와 같은 방식으로 등록
+     * 작업마다 SQL 집계 ThreadLocal을 정리
+     */
+    @Lazy
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(TaskExecutorBuilder builder) {
+        return builder.taskDecorator(SqlStatementCounter::wrap).build();
+    }
+}
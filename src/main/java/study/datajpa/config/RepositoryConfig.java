@@ -0,0 +1,67 @@
+package study.datajpa.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryBuilderCustomizer;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan.Filter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.repository.config.BootstrapMode;
+import study.datajpa.repository.ReadOnlyRepository;
+import study.datajpa.repository.ReadOnlyRepositoryFactoryBean;
+
+/**
+ * 리포지토리 등록
+ * ReadOnlyRepository를 상속한 리포지토리만 ReadOnlyRepositoryFactoryBean으로 만들고 나머지는 기본(JpaRepositoryFactoryBean)
+ *
+ * @EnableJpaRepositories를 직접 선언하면 부트의 리포지토리 자동 설정(JpaRepositoriesAutoConfiguration)이 빠지므로
+ * 자동 설정이 하던 일도 여기서 함
+ * - spring.data.jpa.repositories.bootstrap-mode: default, deferred(fast-startup 프로필)만 지원
+ * - deferred면 EntityManagerFactory를 applicationTaskExecutor에서 백그라운드로 생성
+ */
+@Configuration
+public class RepositoryConfig {
+
+    private static final String REPOSITORY_PACKAGE = "study.datajpa.repository";
+
+    @Bean
+    @ConditionalOnProperty(prefix = "spring.data.jpa.repositories", name = "bootstrap-mode", havingValue = "deferred")
+    public EntityManagerFactoryBuilderCustomizer entityManagerFactoryBootstrapExecutorCustomizer(
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) AsyncTaskExecutor executor) {
+        return builder -> builder.setBootstrapExecutor(executor);
+    }
+
+    @Configuration
+    @ConditionalOnProperty(prefix = "spring.data.jpa.repositories", name = "bootstrap-mode", havingValue = "default", matchIfMissing = true)
+    @EnableJpaRepositories(basePackages = REPOSITORY_PACKAGE,
+            excludeFilters = @Filter(type = FilterType.ASSIGNABLE_TYPE, classes = ReadOnlyRepository.class))
+    static class DefaultRepositories {
+    }
+
+    @Configuration
+    @ConditionalOnProperty(prefix = "spring.data.jpa.repositories", name = "bootstrap-mode", havingValue = "default", matchIfMissing = true)
+    @EnableJpaRepositories(basePackages = REPOSITORY_PACKAGE,
+            repositoryFactoryBeanClass = ReadOnlyRepositoryFactoryBean.class,
+            includeFilters = @Filter(type = FilterType.ASSIGNABLE_TYPE, classes = ReadOnlyRepository.class))
+    static class ReadOnlyRepositories {
+    }
+
+    @Configuration
+    @ConditionalOnProperty(prefix = "spring.data.jpa.repositories", name = "bootstrap-mode", havingValue = "deferred")
+    @EnableJpaRepositories(basePackages = REPOSITORY_PACKAGE, bootstrapMode = BootstrapMode.DEFERRED,
+            excludeFilters = @Filter(type = FilterType.ASSIGNABLE_TYPE, classes = ReadOnlyRepository.class))
+    static class DeferredDefaultRepositories {
+    }
+
+    @Configuration
+    @ConditionalOnProperty(prefix = "spring.data.jpa.repositories", name = "bootstrap-mode", havingValue = "deferred")
+    @EnableJpaRepositories(basePackages = REPOSITORY_PACKAGE, bootstrapMode = BootstrapMode.DEFERRED,
+            repositoryFactoryBeanClass = ReadOnlyRepositoryFactoryBean.class,
+            includeFilters = @Filter(type = FilterType.ASSIGNABLE_TYPE, classes = ReadOnlyRepository.class))
+    static class DeferredReadOnlyRepositories {
+    }
+}
@@ -0,0 +1,94 @@
+package study.datajpa.config;
+
+import com.github.gavlyukovskiy.boot.jdbc.decorator.DataSourceDecorator;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import study.datajpa.support.ReadWriteRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * datajpa.routing.enabled=true 이면 primary(spring.datasource) / replica(datajpa.routing.replica) 두 풀을 만들고
+ * @Transactional(readOnly = true)는 replica, 나머지는 primary로 보냄
+ * 스프링 데이터 JPA가 readOnly 트랜잭션으로 실행하는 건 상속한 CRUD 조회 메서드(findById, findAll 등)뿐이고
+ * 직접 선언한 조회 메서드는 트랜잭션이 없어 primary로 감 -> replica로 보낼 메서드에는 @Transactional(readOnly = true)
+ * (MemberRepository의 캐시/읽기 전용 힌트 메서드, ReadOnlyRepository)
+ *
+ * 풀은 빈으로 등록하지 않음 (p6spy가 DataSource 빈마다 감싸서 SQL이 두 번 집계되는 것을 막기 위해)
+ * 대신 라우팅 빈은 p6spy 대상에서 빼고(decorator.datasource.exclude-beans) 풀을 직접 감쌈
+ * 라우팅 빈을 감싸면 p6spy가 커넥션을 얻자마자 getMetaData()를 불러서 readOnly가 정해지기 전에 풀이 결정됨
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datajpa.routing", name = "enabled", havingValue = "true")
+public class RoutingDataSourceConfig implements DisposableBean {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    @Bean
+    public DataSource routingDataSource(DataSourceProperties properties, Environment environment,
+                                        ObjectProvider<DataSourceDecorator> decorators,
+                                        @Value("${datajpa.routing.replica-lag:1s}") Duration replicaLag) {
+        Binder binder = Binder.get(environment);
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+
+        HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(environment.getRequiredProperty("datajpa.routing.replica.url"))
+                .username(environment.getProperty("datajpa.routing.replica.username", properties.determineUsername()))
+                .password(environment.getProperty("datajpa.routing.replica.password", properties.determinePassword()))
+                .build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+        replica.setPoolName("replica");
+        replica.setReadOnly(true);
+
+        pools.add(primary);
+        pools.add(replica);
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(ReadWriteRoutingDataSource.PRIMARY, decorate(ReadWriteRoutingDataSource.PRIMARY, primary, decorators));
+        targets.put(ReadWriteRoutingDataSource.REPLICA, decorate(ReadWriteRoutingDataSource.REPLICA, replica, decorators));
+
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(replicaLag.toNanos());
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(targets.get(ReadWriteRoutingDataSource.PRIMARY));
+        routing.afterPropertiesSet();
+
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    private static DataSource decorate(String name, DataSource dataSource, ObjectProvider<DataSourceDecorator> decorators) {
+        DataSource decorated = dataSource;
+        for (DataSourceDecorator decorator : decorators.orderedStream().collect(Collectors.toList())) {
+            decorated = decorator.decorate(name, decorated);
+        }
+        return decorated;
+    }
+
+    @Override
+    public void destroy() {
+        for (HikariDataSource pool : pools) {
+            pool.close();
+        }
+    }
+}
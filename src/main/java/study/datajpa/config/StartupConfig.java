@@ -0,0 +1,73 @@
+package study.datajpa.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackages;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.task.AsyncTaskExecutor;
+import study.datajpa.support.QueryPreValidator;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * 빠른 시작 설정 (fast-startup 프로필에서 켬, application-fast-startup.yml)
+ */
+@Slf4j
+@Configuration
+public class StartupConfig {
+
+    /**
+     * member 테이블이 이미 있으면 ddl-auto(create) 대신 validate로 바꿔서 스키마를 다시 만들지 않음
+     * member 테이블만 보고 넘어가지 않도록 나머지 테이블/컬럼/시퀀스는 하이버네이트가 엔티티와 비교해서 확인
+     * 빠지거나 타입이 다른 게 있으면 시작 실패 (다시 만들면 데이터가 지워지므로 create로 되돌리지 않음)
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "datajpa.startup", name = "skip-existing-schema", havingValue = "true")
+    public HibernatePropertiesCustomizer skipExistingSchemaCustomizer(DataSource dataSource) {
+        return properties -> {
+            if (schemaExists(dataSource)) {
+                log.info("existing schema found, validate instead of generating");
+                properties.put(AvailableSettings.HBM2DDL_AUTO, "validate");
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "datajpa.startup", name = "parallel-query-validation", havingValue = "true")
+    public QueryPreValidator queryPreValidator(
+            EntityManagerFactory emf,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) AsyncTaskExecutor executor,
+            ApplicationStartup applicationStartup,
+            BeanFactory beanFactory) {
+        return new QueryPreValidator(emf, executor, applicationStartup, AutoConfigurationPackages.get(beanFactory));
+    }
+
+    private static boolean schemaExists(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            try (ResultSet tables = metaData.getTables(null, null, "MEMBER", new String[]{"TABLE"})) {
+                if (tables.next()) {
+                    return true;
+                }
+            }
+            try (ResultSet tables = metaData.getTables(null, null, "member", new String[]{"TABLE"})) {
+                return tables.next();
+            }
+        } catch (SQLException e) {
+            log.warn("schema check failed, schema generation will run", e);
+            return false;
+        }
+    }
+}
@@ -1,24 +1,59 @@
 package study.datajpa.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import study.datajpa.dto.MemberCursor;
+import study.datajpa.dto.MemberCursorPage;
 import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberSearchCondition;
 import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberReadRepository;
 import study.datajpa.repository.MemberRepository;
 
 import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
+    // spring.data.web.pageable.max-page-size와 맞춤
+    private static final int MAX_KEYSET_PAGE_SIZE = 2000;
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final MemberRepository memberRepository;
+    private final MemberReadRepository memberReadRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${datajpa.export.fetch-size:500}")
+    private int exportFetchSize;
+
+    @Value("${datajpa.export.clear-interval:500}")
+    private int exportClearInterval;
 
     @GetMapping("/members/{id}")
     public String findMember(@PathVariable("id")Long id){
@@ -38,19 +73,111 @@ public class MemberController {
 //
 //        return map;
 //    }
+    /**
+     * 엔티티 조회 후 DTO 변환 대신 DTO 프로젝션으로 바로 조회 (teamName 포함, 읽기 전용 트랜잭션)
+     */
     @GetMapping("/members")
     public Page<MemberDto> list(@PageableDefault(size = 5, sort = "username", direction = Sort.Direction.DESC) Pageable pageable){
-        Page<Member> page = memberRepository.findAll(pageable);
-        Page<MemberDto> map = page.map(member -> new MemberDto(member.getId(), member.getUsername(), null));
+        return memberReadRepository.findMemberDto(pageable);
+    }
+
+    /**
+     * 페이지 내용과 count를 병렬로 조회
+     */
+    @GetMapping("/members/async")
+    public CompletableFuture<Page<MemberDto>> listAsync(@PageableDefault(size = 5, sort = "username", direction = Sort.Direction.DESC) Pageable pageable){
+        CompletableFuture<List<MemberDto>> content = memberRepository.findMemberDtoAsync(pageable);
+        CompletableFuture<Long> total = memberRepository.countAsync();
+        return content.thenCombine(total, (list, count) -> new PageImpl<>(list, pageable, count));
+    }
 
-        return map;
+    /**
+     * 동적 검색 (ex. /members/search?usernamePrefix=user&ageGoe=10&teamName=teamA&sort=age,desc)
+     * 정렬은 id, username, age, teamName만 가능
+     */
+    @GetMapping("/members/search")
+    public Page<MemberDto> search(MemberSearchCondition condition,
+                                  @PageableDefault(size = 5, sort = "username", direction = Sort.Direction.DESC) Pageable pageable){
+        try {
+            return memberRepository.search(condition, pageable);
+        } catch (InvalidDataAccessApiUsageException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 키셋 페이징
+     * 첫 페이지는 cursor 없이 요청하고, 이후에는 응답의 nextCursor를 그대로 넘기면 됨
+     */
+    @GetMapping("/members/keyset")
+    public MemberCursorPage listByKeyset(@RequestParam(value = "cursor", required = false) String cursor,
+                                         @RequestParam(value = "size", defaultValue = "5") int size){
+        PageRequest pageRequest = PageRequest.of(0, Math.min(Math.max(size, 1), MAX_KEYSET_PAGE_SIZE));
+
+        Slice<Member> slice;
+        if (cursor == null) {
+            slice = memberRepository.findFirstKeysetPage(pageRequest);
+        } else {
+            MemberCursor after = decodeCursor(cursor);
+            slice = memberRepository.findKeysetPageAfter(after.getUsername(), after.getId(), pageRequest);
+        }
+
+        List<Member> content = slice.getContent();
+        String nextCursor = slice.hasNext()
+                ? MemberCursor.of(content.get(content.size() - 1)).encode()
+                : null;
+
+        List<MemberDto> dtos = content.stream()
+                .map(member -> new MemberDto(member.getId(), member.getUsername(), null))
+                .collect(Collectors.toList());
+        return new MemberCursorPage(dtos, nextCursor, slice.hasNext());
+    }
+
+    /**
+     * 전체 회원 NDJSON 내보내기 (한 줄에 회원 하나)
+     * 커서로 읽으면서 바로 응답에 쓰기 때문에 회원 수가 많아도 힙 사용량이 늘지 않음
+     */
+    @GetMapping(value = "/members/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> export(){
+        StreamingResponseBody body = outputStream -> {
+            try {
+                memberReadRepository.forEachMember(exportFetchSize, exportClearInterval, member -> {
+                    String teamName = member.getTeam() == null ? null : member.getTeam().getName();
+                    writeLine(outputStream, new MemberDto(member.getId(), member.getUsername(), teamName));
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .body(body);
+    }
+
+    private void writeLine(OutputStream outputStream, MemberDto dto) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(dto));
+            outputStream.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private MemberCursor decodeCursor(String cursor) {
+        try {
+            return MemberCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
     }
 
 //    @PostConstruct
     public void init(){
+        List<Member> members = new ArrayList<>();
         for (int i = 0; i < 100; i++) {
-            memberRepository.save(new Member("user" + i, i));
+            members.add(new Member("user" + i, i));
         }
+        memberRepository.saveAllBatched(members, 100);
     }
 
 
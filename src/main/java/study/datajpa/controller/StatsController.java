@@ -0,0 +1,119 @@
+package study.datajpa.controller;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import study.datajpa.dto.CacheRegionStatsDto;
+import study.datajpa.dto.ExecutorStatsDto;
+import study.datajpa.dto.QueryPlanCacheStatsDto;
+import study.datajpa.dto.RepositoryMethodStatsDto;
+import study.datajpa.dto.SqlStatsDto;
+import study.datajpa.repository.MemberSearchQueryCache;
+import study.datajpa.support.RepositoryExecutor;
+import study.datajpa.support.RepositoryMetrics;
+import study.datajpa.support.SlowQuery;
+import study.datajpa.support.SlowQueryLog;
+import study.datajpa.support.SqlStatementCounter;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 운영 중 확인용 통계
+ */
+@RestController
+public class StatsController {
+
+    private final EntityManagerFactory emf;
+    private final RepositoryExecutor repositoryExecutor;
+    private final RepositoryMetrics repositoryMetrics;
+    private final SlowQueryLog slowQueryLog;
+    private final MemberSearchQueryCache searchQueryCache;
+    private final SqlStatementCounter sqlStatementCounter;
+
+    public StatsController(EntityManagerFactory emf, RepositoryExecutor repositoryExecutor,
+                           RepositoryMetrics repositoryMetrics, SlowQueryLog slowQueryLog,
+                           MemberSearchQueryCache searchQueryCache, SqlStatementCounter sqlStatementCounter) {
+        this.emf = emf;
+        this.repositoryExecutor = repositoryExecutor;
+        this.repositoryMetrics = repositoryMetrics;
+        this.slowQueryLog = slowQueryLog;
+        this.searchQueryCache = searchQueryCache;
+        this.sqlStatementCounter = sqlStatementCounter;
+    }
+
+    /**
+     * 2차 캐시 리전별 hit/miss
+     */
+    @GetMapping("/stats/cache")
+    public List<CacheRegionStatsDto> cache(){
+        Statistics statistics = statistics();
+        List<CacheRegionStatsDto> result = new ArrayList<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+            if (stats == null) {
+                continue;
+            }
+            result.add(new CacheRegionStatsDto(region, stats.getHitCount(), stats.getMissCount(),
+                    stats.getPutCount(), stats.getElementCountInMemory()));
+        }
+        return result;
+    }
+
+    /**
+     * 리포지토리 비동기 executor 대기열 깊이, 대기 시간
+     */
+    @GetMapping("/stats/repository-executor")
+    public ExecutorStatsDto repositoryExecutor(){
+        return new ExecutorStatsDto(repositoryExecutor);
+    }
+
+    /**
+     * 리포지토리 메서드별 호출 수, 지연 시간(p50/p99/max), 반환 행 수, 예외 수 (총 소요 시간 순)
+     */
+    @GetMapping("/stats/repositories")
+    public List<RepositoryMethodStatsDto> repositories(){
+        return repositoryMetrics.getAll().stream()
+                .map(RepositoryMethodStatsDto::new)
+                .sorted(Comparator.comparingDouble(RepositoryMethodStatsDto::getTotalMillis).reversed())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * N+1 의심 경고 수
+     */
+    @GetMapping("/stats/sql")
+    public SqlStatsDto sql(){
+        return new SqlStatsDto(sqlStatementCounter);
+    }
+
+    /**
+     * 최근 느린 SQL (바인딩 값, 소요 시간, 리포지토리 메서드, 샘플링된 실행계획), 최근 것부터
+     */
+    @GetMapping("/stats/slow-queries")
+    public List<SlowQuery> slowQueries(){
+        return slowQueryLog.getRecent();
+    }
+
+    /**
+     * JPQL 파싱 결과 재사용률 (하이버네이트 쿼리 플랜 캐시, 회원 검색 JPQL 캐시)
+     */
+    @GetMapping("/stats/query-plan-cache")
+    public QueryPlanCacheStatsDto queryPlanCache(){
+        Statistics statistics = statistics();
+        return new QueryPlanCacheStatsDto(statistics.getQueryPlanCacheHitCount(), statistics.getQueryPlanCacheMissCount(),
+                searchQueryCache.getShapeCount(), searchQueryCache.getHitCount(), searchQueryCache.getMissCount());
+    }
+
+    /**
+     * 요청 때마다 꺼냄 (생성자에서 unwrap하면 지연 부트스트랩 중인 EntityManagerFactory를 기다리게 됨)
+     */
+    private Statistics statistics() {
+        return emf.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,26 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+import study.datajpa.support.RepositoryExecutor;
+
+@Getter
+public class ExecutorStatsDto {
+
+    private final int poolSize;
+    private final int queueCapacity;
+    private final boolean virtualThreads;
+    private final int queueDepth;
+    private final long startedCount;
+    private final double avgWaitMillis;
+    private final double maxWaitMillis;
+
+    public ExecutorStatsDto(RepositoryExecutor executor) {
+        this.poolSize = executor.getPoolSize();
+        this.queueCapacity = executor.getQueueCapacity();
+        this.virtualThreads = executor.isVirtualThreads();
+        this.queueDepth = executor.getQueueDepth();
+        this.startedCount = executor.getStartedCount();
+        this.avgWaitMillis = startedCount == 0 ? 0 : executor.getTotalWaitNanos() / 1_000_000.0 / startedCount;
+        this.maxWaitMillis = executor.getMaxWaitNanos() / 1_000_000.0;
+    }
+}
@@ -0,0 +1,54 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+import study.datajpa.entity.Member;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 키셋 페이징용 커서
+ * 마지막으로 내려준 회원의 (username, id)를 "id:username" 형태로 묶어서 URL-safe Base64로 인코딩
+ */
+@Getter
+public class MemberCursor {
+
+    private final String username;
+    private final Long id;
+
+    public MemberCursor(String username, Long id) {
+        this.username = username;
+        this.id = id;
+    }
+
+    public static MemberCursor of(Member member) {
+        return new MemberCursor(member.getUsername(), member.getId());
+    }
+
+    public String encode() {
+        String raw = id + ":" + username;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static MemberCursor decode(String token) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다: " + token, e);
+        }
+
+        // username에 ':'가 들어갈 수 있으니 첫 번째 ':'만 구분자로 사용
+        int idx = raw.indexOf(':');
+        if (idx <= 0) {
+            throw new IllegalArgumentException("잘못된 커서입니다: " + token);
+        }
+        try {
+            Long id = Long.valueOf(raw.substring(0, idx));
+            return new MemberCursor(raw.substring(idx + 1), id);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다: " + token, e);
+        }
+    }
+}
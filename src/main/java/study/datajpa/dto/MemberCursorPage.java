@@ -0,0 +1,23 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 키셋 페이징 응답
+ * 전체 개수(totalCount)는 내려주지 않고, 다음 페이지를 요청할 커서만 내려줌
+ */
+@Getter
+public class MemberCursorPage {
+
+    private final List<MemberDto> content;
+    private final String nextCursor;
+    private final boolean hasNext;
+
+    public MemberCursorPage(List<MemberDto> content, String nextCursor, boolean hasNext) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+}
@@ -0,0 +1,15 @@
+package study.datajpa.dto;
+
+import lombok.Data;
+
+/**
+ * 회원 검색 조건, null(빈 값)이면 조건에서 빠짐
+ */
+@Data
+public class MemberSearchCondition {
+
+    private String usernamePrefix;
+    private Integer ageGoe;
+    private Integer ageLoe;
+    private String teamName;
+}
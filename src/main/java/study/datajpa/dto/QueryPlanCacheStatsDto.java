@@ -0,0 +1,35 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+
+/**
+ * 하이버네이트 쿼리 플랜 캐시(JPQL 파싱 결과) + 회원 검색 JPQL 캐시 hit/miss
+ */
+@Getter
+public class QueryPlanCacheStatsDto {
+
+    private final long planCacheHitCount;
+    private final long planCacheMissCount;
+    private final int searchShapeCount;
+    private final long searchHitCount;
+    private final long searchMissCount;
+
+    public QueryPlanCacheStatsDto(long planCacheHitCount, long planCacheMissCount,
+                                  int searchShapeCount, long searchHitCount, long searchMissCount) {
+        this.planCacheHitCount = planCacheHitCount;
+        this.planCacheMissCount = planCacheMissCount;
+        this.searchShapeCount = searchShapeCount;
+        this.searchHitCount = searchHitCount;
+        this.searchMissCount = searchMissCount;
+    }
+
+    public double getPlanCacheHitRatio() {
+        long total = planCacheHitCount + planCacheMissCount;
+        return total == 0 ? 0 : (double) planCacheHitCount / total;
+    }
+
+    public double getSearchHitRatio() {
+        long total = searchHitCount + searchMissCount;
+        return total == 0 ? 0 : (double) searchHitCount / total;
+    }
+}
@@ -0,0 +1,32 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+import study.datajpa.support.LatencyHistogram;
+import study.datajpa.support.RepositoryMethodStats;
+
+@Getter
+public class RepositoryMethodStatsDto {
+
+    private final String method;
+    private final long calls;
+    private final long errors;
+    private final long rows;
+    private final double totalMillis;
+    private final double avgMillis;
+    private final double p50Millis;
+    private final double p99Millis;
+    private final double maxMillis;
+
+    public RepositoryMethodStatsDto(RepositoryMethodStats stats) {
+        LatencyHistogram latency = stats.getLatency();
+        this.method = stats.getMethod();
+        this.calls = latency.getCount();
+        this.errors = stats.getErrors();
+        this.rows = stats.getRows();
+        this.totalMillis = latency.getTotalNanos() / 1_000_000.0;
+        this.avgMillis = calls == 0 ? 0 : totalMillis / calls;
+        this.p50Millis = latency.percentileNanos(50) / 1_000_000.0;
+        this.p99Millis = latency.percentileNanos(99) / 1_000_000.0;
+        this.maxMillis = latency.getMaxNanos() / 1_000_000.0;
+    }
+}
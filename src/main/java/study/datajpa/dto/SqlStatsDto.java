@@ -0,0 +1,19 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+import study.datajpa.support.SqlStatementCounter;
+
+/**
+ * 같은 SQL이 repeatThreshold번 이상 반복돼서 N+1 의심으로 경고한 요청/트랜잭션 수
+ */
+@Getter
+public class SqlStatsDto {
+
+    private final int repeatThreshold;
+    private final long suspectedNPlusOneCount;
+
+    public SqlStatsDto(SqlStatementCounter counter) {
+        this.repeatThreshold = counter.getRepeatThreshold();
+        this.suspectedNPlusOneCount = counter.getSuspectedNPlusOneCount();
+    }
+}
@@ -0,0 +1,47 @@
+package study.datajpa.entity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import java.time.LocalDateTime;
+
+/**
+ * chunk 단위 벌크 수정 체크포인트 (작업 이름당 한 행)
+ * chunk 수정과 같은 트랜잭션에서 갱신하므로 lastCompletedId 이하는 항상 커밋되어 있음
+ * -> 프로세스가 죽어도 같은 작업 이름으로 다시 실행하면 이어서 처리
+ */
+@Entity
+@Getter
+@ToString
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class BulkUpdateCheckpoint {
+
+    @Id
+    private String jobName;
+    private long lastCompletedId;
+    private int chunks;
+    private long updatedRows;
+    private boolean completed;
+    private LocalDateTime updatedDate;
+
+    public BulkUpdateCheckpoint(String jobName) {
+        this.jobName = jobName;
+        this.updatedDate = LocalDateTime.now();
+    }
+
+    public void chunkCompleted(long lastCompletedId, long updatedRows) {
+        this.lastCompletedId = lastCompletedId;
+        this.chunks++;
+        this.updatedRows += updatedRows;
+        this.updatedDate = LocalDateTime.now();
+    }
+
+    public void complete() {
+        this.completed = true;
+        this.updatedDate = LocalDateTime.now();
+    }
+}
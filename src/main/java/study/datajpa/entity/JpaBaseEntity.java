@@ -2,6 +2,7 @@ package study.datajpa.entity;
 
 
 import lombok.Getter;
+import study.datajpa.support.AuditClock;
 
 import javax.persistence.Column;
 import javax.persistence.MappedSuperclass;
@@ -19,7 +20,7 @@ public class JpaBaseEntity {
 
     @PrePersist
     public void prePersist(){
-        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime now = AuditClock.now();
         createdDate = now;
         updatedDate = now;
     }
@@ -27,7 +28,7 @@ public class JpaBaseEntity {
 
     @PreUpdate
     public void preUpdate(){
-        updatedDate = LocalDateTime.now();
+        updatedDate = AuditClock.now();
     }
 
 }
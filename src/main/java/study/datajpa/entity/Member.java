@@ -1,10 +1,19 @@
 package study.datajpa.entity;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(indexes = {
+        @Index(name = "idx_member_username", columnList = "username"),           // username 조회, findByNames (in)
+        @Index(name = "idx_member_age_username", columnList = "age, username"),  // age 조건 + username 정렬 (findByPage, totalCount)
+        @Index(name = "idx_member_team", columnList = "team_id")                 // team.members 로딩
+})
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "username", "age" })
@@ -14,12 +23,26 @@ import javax.persistence.*;
 )
 public class Member extends BaseEntity  {
 
-    @Id @GeneratedValue
+    /**
+     * 시퀀스를 50개씩 미리 받아서(pooled) 쓰므로 insert마다 시퀀스를 조회하지 않음
+     * IDENTITY가 아니라서 JDBC 배치 insert도 가능
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+    @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 50)
     @Column(name = "member_id")
     private Long id;
     private String username;
     private int age;
 
+    /**
+     * 낙관적 락 (수정 시 where version = ? 로 충돌 감지)
+     * 충돌 시 재시도는 OptimisticLockRetry 사용
+     */
+    @Version
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "team_id")
     private Team team;
@@ -40,8 +63,17 @@ public class Member extends BaseEntity  {
             changeTeam(team);
     }
 
+    /**
+     * 팀 변경 (양쪽 연관관계 같이 맞춤)
+     * Team.members가 로딩 안 된 상태면 로딩하지 않음 -> 회원이 많은 팀이어도 비용 일정
+     */
     public void changeTeam(Team team){
+        if (this.team != null && this.team != team) {
+            this.team.removeMember(this);
+        }
         this.team = team;
-        team.getMembers().add(this);
+        if (team != null) {
+            team.addMember(this);
+        }
     }
 }
@@ -1,26 +1,60 @@
 package study.datajpa.entity;
 
 import lombok.*;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.LazyCollection;
+import org.hibernate.annotations.LazyCollectionOption;
 
 import javax.persistence.*;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@BatchSize(size = 100) // member.team 프록시를 IN 절로 100개씩 초기화
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "username" })
 public class Team extends JpaBaseEntity {
 
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "team_seq_generator")
+    @SequenceGenerator(name = "team_seq_generator", sequenceName = "team_seq", allocationSize = 50)
     @Column(name = "team_id")
     private Long id;
     private String name;
 
+    /**
+     * EXTRA: size(), contains()는 컬렉션 전체를 로딩하지 않고 쿼리로 처리
+     * 순서 컬럼이 없는 List(bag)라서 get(i), 순회는 EXTRA여도 전체를 로딩함
+     * 연관관계 주인은 Member.team이므로 여기 추가/삭제는 메모리 상태 맞추기용 (Member.changeTeam 참고)
+     */
+    @BatchSize(size = 100) // 여러 팀의 members 컬렉션을 IN 절로 한 번에 초기화
+    @LazyCollection(LazyCollectionOption.EXTRA)
     @OneToMany(mappedBy = "team")
     private List<Member> members = new ArrayList<>();
 
     public Team(String name) {
         this.name = name;
     }
+
+    /**
+     * 아직 로딩 안 된 컬렉션(inverse)에 add하면 하이버네이트가 로딩 없이 큐에 쌓아뒀다가 나중에 로딩될 때 반영
+     */
+    void addMember(Member member) {
+        members.add(member);
+    }
+
+    /**
+     * 로딩 안 된 컬렉션은 건드리지 않음 (나중에 로딩하면 DB 기준으로 이미 빠져 있음)
+     */
+    void removeMember(Member member) {
+        if (Hibernate.isInitialized(members)) {
+            members.remove(member);
+        }
+    }
 }
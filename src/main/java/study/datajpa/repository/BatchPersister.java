@@ -0,0 +1,41 @@
+package study.datajpa.repository;
+
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+/**
+ * 대량 저장
+ * persist만 하고 batchSize마다 flush/clear
+ * -> hibernate.jdbc.batch_size 단위로 insert가 묶여서 나가고, 영속성 컨텍스트가 계속 커지지 않음
+ * clear 이후에는 앞에서 저장한 엔티티가 준영속 상태가 되니 호출하는 쪽에서 다시 수정하지 말 것
+ */
+@Component
+public class BatchPersister {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * 트랜잭션 안에서 호출해야 함
+     * @return 저장한 건수
+     */
+    public <T> int persistAll(Iterable<T> entities, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize는 1 이상이어야 합니다: " + batchSize);
+        }
+
+        int count = 0;
+        for (T entity : entities) {
+            em.persist(entity);
+            if (++count % batchSize == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+        return count;
+    }
+}
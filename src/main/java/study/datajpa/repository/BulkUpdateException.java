@@ -0,0 +1,18 @@
+package study.datajpa.repository;
+
+import lombok.Getter;
+
+/**
+ * chunk 단위 벌크 수정 도중 실패
+ * progress.lastCompletedId 까지는 체크포인트와 함께 커밋되어 있으므로 같은 작업 이름으로 다시 실행하면 이어서 처리
+ */
+@Getter
+public class BulkUpdateException extends RuntimeException {
+
+    private final BulkUpdateProgress progress;
+
+    public BulkUpdateException(BulkUpdateProgress progress, Throwable cause) {
+        super("bulk update failed after id " + progress.getLastCompletedId(), cause);
+        this.progress = progress;
+    }
+}
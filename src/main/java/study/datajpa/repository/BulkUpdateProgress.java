@@ -0,0 +1,30 @@
+package study.datajpa.repository;
+
+import lombok.Getter;
+import lombok.ToString;
+import study.datajpa.entity.BulkUpdateCheckpoint;
+
+/**
+ * chunk 단위 벌크 수정 진행 상황 (체크포인트 기준, 이전 실행분 포함)
+ * lastCompletedId 이하 id는 모두 커밋됨 -> 실패하면 같은 작업 이름으로 다시 실행하면 이 값부터 이어서 처리
+ */
+@Getter
+@ToString
+public class BulkUpdateProgress {
+
+    private final long lastCompletedId;
+    private final int chunks;
+    private final long updatedRows;
+    private final boolean completed;
+
+    public BulkUpdateProgress(long lastCompletedId, int chunks, long updatedRows, boolean completed) {
+        this.lastCompletedId = lastCompletedId;
+        this.chunks = chunks;
+        this.updatedRows = updatedRows;
+        this.completed = completed;
+    }
+
+    public BulkUpdateProgress(BulkUpdateCheckpoint checkpoint) {
+        this(checkpoint.getLastCompletedId(), checkpoint.getChunks(), checkpoint.getUpdatedRows(), checkpoint.isCompleted());
+    }
+}
@@ -0,0 +1,26 @@
+package study.datajpa.repository;
+
+/**
+ * Page 조회 시 totalCount를 어떻게 구할지
+ * 메서드마다 골라서 쓸 수 있게 파라미터로 받음
+ */
+public enum CountMode {
+
+    /**
+     * 매번 count 쿼리 실행 (기본 동작과 같음)
+     */
+    EXACT,
+
+    /**
+     * count 결과를 TTL 동안 캐시
+     * Member 저장/수정/삭제, 벌크 수정이 일어나면 바로 무효화
+     */
+    CACHED,
+
+    /**
+     * DB 통계의 테이블 row 추정치 사용 (H2 INFORMATION_SCHEMA.TABLES.ROW_COUNT_ESTIMATE)
+     * 조건 없는 전체 count에서 "대략 몇 페이지" 정도만 필요할 때 사용
+     * where 조건은 반영할 수 없으므로 조건이 있는 count에 넘기면 IllegalArgumentException
+     */
+    ESTIMATED
+}
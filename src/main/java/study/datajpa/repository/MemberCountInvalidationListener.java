@@ -0,0 +1,69 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.internal.SessionFactoryImpl;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Member가 저장/수정/삭제되면 캐시된 count 무효화
+ * flush 시점에 호출되지만 실제 무효화는 커밋 이후 (PageCounter.evict)
+ * 엔티티(@EntityListeners)가 리포지토리 패키지에 의존하지 않도록 하이버네이트 이벤트 리스너로 등록
+ * 지연 부트스트랩일 때 다른 빈 생성을 막지 않도록 다른 빈이 다 만들어진 뒤에 등록 (QueryPreValidator와 같은 시점)
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberCountInvalidationListener implements SmartInitializingSingleton,
+        PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private final PageCounter pageCounter;
+    private final EntityManagerFactory emf;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        EventListenerRegistry registry = emf.unwrap(SessionFactoryImpl.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        evict(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        evict(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        evict(event.getEntity());
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    private void evict(Object entity) {
+        if (entity instanceof Member) {
+            pageCounter.evict("member");
+        }
+    }
+}
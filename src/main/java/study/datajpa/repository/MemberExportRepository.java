@@ -0,0 +1,19 @@
+package study.datajpa.repository;
+
+import study.datajpa.entity.Member;
+
+import java.util.function.Consumer;
+
+/**
+ * MemberRepository, MemberReadRepository가 같이 쓰는 커서 조회 (구현은 MemberExportRepositoryImpl)
+ */
+public interface MemberExportRepository {
+
+    /**
+     * 전체 회원을 List로 모으지 않고 커서(forward-only)로 한 건씩 넘겨줌 (team은 fetch join)
+     * clearInterval 건마다 영속성 컨텍스트를 비워서 테이블 크기와 상관없이 메모리 사용량이 일정함
+     * action 안에서 넘겨받은 엔티티를 보관하거나 수정하면 안 됨 (읽기 전용, 곧 준영속 상태가 됨)
+     * @return 처리한 건수
+     */
+    long forEachMember(int fetchSize, int clearInterval, Consumer<Member> action);
+}
@@ -0,0 +1,39 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class MemberExportRepositoryImpl implements MemberExportRepository {
+
+    private final EntityManager em;
+
+    @Override
+    @Transactional(readOnly = true)
+    public long forEachMember(int fetchSize, int clearInterval, Consumer<Member> action) {
+        if (clearInterval < 1) {
+            throw new IllegalArgumentException("clearInterval은 1 이상이어야 합니다: " + clearInterval);
+        }
+        long count = 0;
+        try (Stream<Member> stream = em.createQuery("select m from Member m left join fetch m.team order by m.id", Member.class)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultStream()) {
+            Iterator<Member> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                action.accept(iterator.next());
+                if (++count % clearInterval == 0) {
+                    em.clear();
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -1,5 +1,6 @@
 package study.datajpa.repository;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 import study.datajpa.entity.Member;
 
@@ -14,6 +15,9 @@ public class MemberJpaRepository {
     @PersistenceContext
     private EntityManager em;
 
+    @Autowired
+    private PageCounter pageCounter;
+
     public Member save(Member member){
         em.persist(member);
         return member;
@@ -84,11 +88,28 @@ public class MemberJpaRepository {
                 .getSingleResult();
     }
 
+    /**
+     * 전체 회원 수, totalCount 전략을 골라서 사용
+     * CACHED는 TTL 동안 재사용, ESTIMATED는 테이블 통계 추정치
+     */
+    public long count(CountMode countMode){
+        return pageCounter.count("member", countMode, this::count);
+    }
+
+    /**
+     * totalCount 전략을 골라서 사용 (CACHED는 TTL 동안 재사용)
+     * age 조건이 있으므로 ESTIMATED는 사용 불가 (IllegalArgumentException)
+     */
+    public long totalCount(int age, CountMode countMode){
+        return pageCounter.count("member", "age=" + age, countMode, () -> totalCount(age));
+    }
+
     /**
      * 벌크성 수정쿼리
+     * versioned: @Version도 같이 올림 (MemberRepository.bulkAgePlus 참고)
      */
     public int bulkAgePlus(int age) {
-        return em.createQuery("update Member m set m.age = m.age+1 where m.age >= : age")
+        return em.createQuery("update versioned Member m set m.age = m.age+1 where m.age >= : age")
                 .setParameter("age",age)
                 .executeUpdate(); //이거 실행하면, 응답값으로 개수가 나옴
     }
@@ -0,0 +1,29 @@
+package study.datajpa.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 목록/내보내기처럼 조회만 하는 곳에서 사용 (읽기 전용 조회, ReadOnlyRepository 참고)
+ * 수정할 엔티티는 MemberRepository로 조회할 것
+ */
+public interface MemberReadRepository extends ReadOnlyRepository<Member, Long>, MemberExportRepository {
+
+    @Query("select m from Member m left join fetch m.team")
+    List<Member> findMemberFetchJoin();
+
+    List<Member> findByUsernameIn(Collection<String> names);
+
+    /**
+     * MemberRepository.findMemberDto와 같은 쿼리 (DTO 프로젝션이라 엔티티를 관리하지 않음)
+     */
+    @Query(value = "select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t",
+            countQuery = "select count(m) from Member m")
+    Page<MemberDto> findMemberDto(Pageable pageable);
+}
@@ -2,8 +2,11 @@ package study.datajpa.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 
@@ -11,8 +14,9 @@ import javax.persistence.LockModeType;
 import javax.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
-public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryCustom {
+public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryCustom, MemberExportRepository {
 
     List<Member> findByUsernameAndAgeGreaterThan(String username, int age);
 
@@ -20,6 +24,16 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
 
     List<Member> findTop3HelloBy();
 
+    /**
+     * username 조회 메서드들은 쿼리 캐시 사용 (파라미터별로 캐시됨)
+     * Member 저장/수정/삭제, 벌크 수정(bulkAgePlus)이 커밋되면 하이버네이트가 member 테이블 기준으로 자동 무효화
+     * 단, 네이티브 SQL로 member 테이블을 직접 바꾸면 무효화가 안 되니 주의
+     *
+     * 직접 선언한 조회 메서드는 트랜잭션 없이 실행되므로 캐시/읽기 전용 힌트를 붙인 메서드는 readOnly 트랜잭션으로 실행
+     * (바깥 트랜잭션이 없으면 라우팅 시 replica로 감, RoutingDataSourceConfig)
+     */
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     @Query(name = "Member.findByUsername")
     List<Member> findByUsername(@Param("username") String username);
 
@@ -32,11 +46,21 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     @Query("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m join m.team t")
     List<MemberDto> findMemberDto();
 
-    @Query("select m from Member m where m.username in :names")
-    List<Member> findByNames(@Param("names") List<String> names);
+    /**
+     * 엔티티를 거치지 않고 DTO로 바로 조회하는 페이징 (/members)
+     * 영속성 컨텍스트에 올라가지 않으니 스냅샷, 프록시, 감사 필드 로딩이 없음
+     * 팀 없는 회원도 나와야 하므로 left join, count는 조인 없이
+     */
+    @Query(value = "select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t",
+            countQuery = "select count(m) from Member m")
+    Page<MemberDto> findMemberDto(Pageable pageable);
 
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<Member> findListByUsername(String username); // 컬렉션
     Member findMemberByUsername(String username); // 단건
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Optional<Member> findOptionalByUsername(String username); //단건 Optional
 
 
@@ -54,12 +78,28 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
             countQuery = "select count(m.username) from Member m")
     Page<Member> findByAge(int age, Pageable pageable);
 
+    /**
+     * 키셋(seek) 페이징
+     * offset으로 앞 데이터를 읽고 버리는 대신, 마지막으로 본 (username, id) 다음부터 바로 읽음
+     * 그래서 페이지가 깊어져도 비용이 일정하고, Slice라서 count 쿼리도 안 날림
+     * pageable은 크기만 사용 (PageRequest.of(0, size)), 정렬은 쿼리에 고정
+     * username이 null인 회원은 비교가 안 되기 때문에 대상에서 빠짐
+     */
+    @Query("select m from Member m where m.username is not null order by m.username desc, m.id desc")
+    Slice<Member> findFirstKeysetPage(Pageable pageable);
+
+    @Query("select m from Member m" +
+            " where m.username < :username or (m.username = :username and m.id < :id)" +
+            " order by m.username desc, m.id desc")
+    Slice<Member> findKeysetPageAfter(@Param("username") String username, @Param("id") Long id, Pageable pageable);
+
     /**
      * 벌크성 수정쿼리
      * 벌크성 수정쿼리 수행 후에는 반드시 영속성 컨텍스트 clear해줘야함
+     * versioned: @Version도 같이 올려서 이전에 읽어 둔 엔티티로 덮어쓰면 낙관적 락 충돌이 나게 함
      */
     @Modifying(clearAutomatically = true) //이게 있어야 executeUpdate실행 (아니면 getResultList 이런거 실행해버림)
-    @Query("update Member m set m.age = m.age + 1 where m.age >= :age")
+    @Query("update versioned Member m set m.age = m.age + 1 where m.age >= :age")
     int bulkAgePlus(@Param("age") int age);
 
     @Query("select m from Member m left join fetch m.team")
@@ -68,11 +108,47 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     @EntityGraph(attributePaths = ("team"))
     List<Member> findEntityGraphByUsername(@Param("username") String username);
 
-    @QueryHints(value = @QueryHint(name = "org.hibernate.readOnly", value = "true"))
+    @Transactional(readOnly = true)
+    @QueryHints(value = {
+            @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheable", value = "true")
+    })
     Member findReadOnlyByUsername(String name);
 
+    /**
+     * 비동기 조회 (repositoryExecutor에서 실행)
+     * 서로 독립적인 쿼리(ex. 페이지 내용 + count)를 병렬로 날릴 때 사용
+     */
+    @Async("repositoryExecutor")
+    @Query("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t")
+    CompletableFuture<List<MemberDto>> findMemberDtoAsync(Pageable pageable);
+
+    @Async("repositoryExecutor")
+    @Query("select count(m) from Member m")
+    CompletableFuture<Long> countAsync();
+
+    @Async("repositoryExecutor")
+    CompletableFuture<List<Member>> findAsyncByUsername(String username);
+
     // select for lock
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     List<Member> findLockByUsername(String username);
+
+    /**
+     * 락 대기 시간 제한 (ms), 넘으면 PessimisticLockException/LockTimeoutException
+     * 방언이 지원해야 적용됨 (H2는 전역 LOCK_TIMEOUT만 사용)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "3000"))
+    List<Member> findLockWithTimeoutByUsername(String username);
+
+    /**
+     * 큐처럼 여러 소비자가 나눠 가져갈 때 사용, 다른 트랜잭션이 잡고 있는 행은 건너뜀 (-2 = SKIP LOCKED)
+     * 방언이 지원해야 적용됨 (PostgreSQL, Oracle, MySQL 8 등, H2 1.4는 일반 for update로 동작)
+     * 한 번에 가져갈 만큼만 잠그도록 pageable로 개수 제한 (count 쿼리 없음)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    List<Member> findSkipLockedByUsername(String username, Pageable pageable);
 }
@@ -1,9 +1,57 @@
 package study.datajpa.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberSearchCondition;
 import study.datajpa.entity.Member;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface MemberRepositoryCustom {
     List<Member> findMemberCustom();
+
+    /**
+     * 동적 검색 (username 접두어, 나이 범위, 팀 이름, 정렬)
+     * 조건 모양이 같으면 같은 JPQL을 재사용 (MemberSearchQueryCache)
+     * @throws org.springframework.dao.InvalidDataAccessApiUsageException 허용되지 않은 정렬 속성 (리포지토리 프록시가 IllegalArgumentException을 변환)
+     */
+    Page<MemberDto> search(MemberSearchCondition condition, Pageable pageable);
+
+    /**
+     * username in 조회
+     * 중복 이름은 한 번만 조회, chunk-size 넘으면 나눠서 조회 후 합침 (순서 보장 안 함)
+     * temp-table-threshold 이상이면 IN 대신 임시 테이블에 이름을 넣고 조인 (H2 전용, 읽기/쓰기 트랜잭션에서 실행)
+     */
+    List<Member> findByNames(Collection<String> names);
+
+    /**
+     * findByAge와 같은 페이징인데 totalCount 전략을 골라서 사용
+     * age 조건이 있으므로 CountMode.ESTIMATED는 사용 불가 (IllegalArgumentException)
+     */
+    Page<Member> findPageByAge(int age, Pageable pageable, CountMode countMode);
+
+    /**
+     * 대량 저장 (JDBC 배치 insert + batchSize마다 flush/clear)
+     * 저장 후 엔티티는 준영속 상태
+     * 팀을 지정할 때는 changeTeam 대신 setTeam을 쓰는게 좋음 (새로 만든 팀이면 Team.members에 계속 쌓이므로)
+     * @return 저장한 건수
+     */
+    int saveAllBatched(Iterable<Member> members, int batchSize);
+
+    /**
+     * bulkAgePlus를 id 범위 chunk로 나눠서 chunk마다 커밋
+     * 한 문장으로 전체 테이블을 잠그지 않고, chunk마다 같은 트랜잭션에서 체크포인트(BulkUpdateCheckpoint)를 남김
+     * 실패하거나 프로세스가 죽어도 같은 jobName으로 다시 호출하면 마지막으로 커밋된 id부터 이어서 실행
+     * 이미 끝난 jobName이면 아무것도 수정하지 않고 저장된 결과를 반환
+     * chunk마다 새 트랜잭션(REQUIRES_NEW)을 쓰므로 트랜잭션 밖에서 호출할 것
+     * 끝나면 clearAutomatically처럼 영속성 컨텍스트를 비움
+     *
+     * @param jobName  체크포인트 키, 작업(대상 나이)마다 다른 이름을 쓸 것
+     * @param listener chunk 커밋마다 진행 상황 전달
+     * @throws BulkUpdateException 실패 시, 마지막으로 커밋된 진행 상황 포함
+     */
+    BulkUpdateProgress bulkAgePlusInChunks(String jobName, int age, int chunkSize, Consumer<BulkUpdateProgress> listener);
 }
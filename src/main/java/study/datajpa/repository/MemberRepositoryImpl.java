@@ -1,19 +1,275 @@
 package study.datajpa.repository;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberSearchCondition;
+import study.datajpa.entity.BulkUpdateCheckpoint;
 import study.datajpa.entity.Member;
 
 import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.TypedQuery;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @RequiredArgsConstructor
 public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
     private final EntityManager em;
+    private final PageCounter pageCounter;
+    private final BatchPersister batchPersister;
+    private final PlatformTransactionManager transactionManager;
+    private final MemberSearchQueryCache searchQueryCache;
+
+    @Value("${datajpa.in-clause.chunk-size:512}")
+    private int inClauseChunkSize;
+
+    @Value("${datajpa.in-clause.temp-table-threshold:10000}")
+    private int tempTableThreshold;
 
     @Override
     public List<Member> findMemberCustom() {
         return em.createQuery("select m from Member m")
                 .getResultList();
     }
+
+    /**
+     * 임시 테이블 경로는 DDL/insert를 실행하므로 읽기/쓰기 트랜잭션(라우팅 시 primary)에서 실행
+     * 바깥 트랜잭션이 readOnly면 replica 커넥션이 이미 정해져 있으므로 IN 절 조회로 대신함
+     */
+    @Override
+    public List<Member> findByNames(Collection<String> names) {
+        Set<String> distinct = new LinkedHashSet<>(names);
+        distinct.remove(null);
+        if (distinct.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (distinct.size() >= tempTableThreshold && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return new TransactionTemplate(transactionManager).execute(status -> findByNamesUsingTempTable(distinct));
+        }
+
+        TransactionTemplate readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+        return readOnlyTx.execute(status -> findByNamesInChunks(distinct));
+    }
+
+    /**
+     * 파라미터 패딩(in_clause_parameter_padding) 덕분에 chunk 크기가 달라도 SQL 종류는 몇 개 안 됨
+     */
+    private List<Member> findByNamesInChunks(Set<String> distinct) {
+        List<String> list = new ArrayList<>(distinct);
+        List<Member> result = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += inClauseChunkSize) {
+            List<String> chunk = list.subList(from, Math.min(from + inClauseChunkSize, list.size()));
+            result.addAll(em.createQuery("select m from Member m where m.username in :names", Member.class)
+                    .setParameter("names", chunk)
+                    .getResultList());
+        }
+        return result;
+    }
+
+    /**
+     * 이름 수만 개를 IN 절 대신 커넥션 로컬 임시 테이블에 JDBC 배치로 넣고 조인
+     * 같은 커넥션을 써야 하므로 트랜잭션 안에서만 동작, TRANSACTIONAL이라 DDL이 트랜잭션을 커밋하지 않음
+     * H2 전용 (local temporary table ... transactional 문법), 다른 DB로 바꾸면 해당 DB의 임시 테이블 문법으로 바꾸거나
+     * temp-table-threshold를 크게 잡아서 IN 절 조회만 쓸 것
+     * 커넥션 풀에서 재사용되므로 테이블은 남겨두고 내용만 비움
+     */
+    private List<Member> findByNamesUsingTempTable(Set<String> names) {
+        em.unwrap(Session.class).doWork(connection -> {
+            // H2는 prepare 시점에 테이블을 확인하므로 테이블을 먼저 만든 뒤 나머지 문장을 준비
+            try (PreparedStatement create = connection.prepareStatement(
+                    "create local temporary table if not exists member_name_filter"
+                            + " (username varchar(255) primary key) transactional")) {
+                create.execute();
+            }
+            try (PreparedStatement clear = connection.prepareStatement("delete from member_name_filter");
+                 PreparedStatement insert = connection.prepareStatement(
+                         "insert into member_name_filter (username) values (?)")) {
+                clear.executeUpdate();
+                int count = 0;
+                for (String name : names) {
+                    insert.setString(1, name);
+                    insert.addBatch();
+                    if (++count % inClauseChunkSize == 0) {
+                        insert.executeBatch();
+                    }
+                }
+                insert.executeBatch();
+            }
+        });
+
+        List<Member> result = em.createNativeQuery(
+                "select m.* from member m join member_name_filter f on f.username = m.username", Member.class)
+                .getResultList();
+
+        em.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement clear = connection.prepareStatement("delete from member_name_filter")) {
+                clear.executeUpdate();
+            }
+        });
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<MemberDto> search(MemberSearchCondition condition, Pageable pageable) {
+        MemberSearchQueryCache.SearchQuery query = searchQueryCache.get(condition, pageable.getSort());
+
+        TypedQuery<MemberDto> contentQuery = em.createQuery(query.getContent(), MemberDto.class)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize());
+        bindSearchParameters(contentQuery, condition);
+        List<MemberDto> content = contentQuery.getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> {
+            TypedQuery<Long> countQuery = em.createQuery(query.getCount(), Long.class);
+            bindSearchParameters(countQuery, condition);
+            return countQuery.getSingleResult();
+        });
+    }
+
+    private static void bindSearchParameters(TypedQuery<?> query, MemberSearchCondition condition) {
+        if (StringUtils.hasText(condition.getUsernamePrefix())) {
+            String escaped = condition.getUsernamePrefix()
+                    .replace("\\", "\\\\")
+                    .replace("%", "\\%")
+                    .replace("_", "\\_");
+            query.setParameter("usernamePrefix", escaped + "%");
+        }
+        if (condition.getAgeGoe() != null) {
+            query.setParameter("ageGoe", condition.getAgeGoe());
+        }
+        if (condition.getAgeLoe() != null) {
+            query.setParameter("ageLoe", condition.getAgeLoe());
+        }
+        if (StringUtils.hasText(condition.getTeamName())) {
+            query.setParameter("teamName", condition.getTeamName());
+        }
+    }
+
+    @Override
+    public Page<Member> findPageByAge(int age, Pageable pageable, CountMode countMode) {
+        String countKey = "age=" + age;
+        PageCounter.checkMode(countKey, countMode);
+        String jpql = QueryUtils.applySorting("select m from Member m where m.age = :age", pageable.getSort(), "m");
+        List<Member> content = em.createQuery(jpql, Member.class)
+                .setParameter("age", age)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        // 마지막 페이지 등 content만으로 total을 알 수 있으면 count 자체를 생략
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> pageCounter.count("member", countKey, countMode,
+                        () -> em.createQuery("select count(m) from Member m where m.age = :age", Long.class)
+                                .setParameter("age", age)
+                                .getSingleResult()));
+    }
+
+    @Override
+    @Transactional
+    public int saveAllBatched(Iterable<Member> members, int batchSize) {
+        return batchPersister.persistAll(members, batchSize);
+    }
+
+    @Override
+    public BulkUpdateProgress bulkAgePlusInChunks(String jobName, int age, int chunkSize,
+                                                  Consumer<BulkUpdateProgress> listener) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize는 1 이상이어야 합니다: " + chunkSize);
+        }
+
+        TransactionTemplate chunkTx = new TransactionTemplate(transactionManager);
+        chunkTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        BulkUpdateProgress progress = chunkTx.execute(status -> {
+            BulkUpdateCheckpoint checkpoint = em.find(BulkUpdateCheckpoint.class, jobName);
+            return checkpoint == null ? new BulkUpdateProgress(0, 0, 0, false) : new BulkUpdateProgress(checkpoint);
+        });
+        try {
+            while (!progress.isCompleted()) {
+                int chunks = progress.getChunks();
+                progress = chunkTx.execute(status -> runChunk(jobName, age, chunkSize));
+                if (progress.getChunks() > chunks) {
+                    listener.accept(progress);
+                }
+            }
+            return progress;
+        } catch (RuntimeException e) {
+            throw new BulkUpdateException(progress, e);
+        } finally {
+            em.clear();
+        }
+    }
+
+    /**
+     * 체크포인트를 잠그고 다음 chunk 수정, 체크포인트 갱신까지 한 트랜잭션
+     * 같은 작업을 동시에 실행해도 체크포인트 행 락 때문에 chunk가 두 번 처리되지 않음
+     */
+    private BulkUpdateProgress runChunk(String jobName, int age, int chunkSize) {
+        BulkUpdateCheckpoint checkpoint = em.find(BulkUpdateCheckpoint.class, jobName, LockModeType.PESSIMISTIC_WRITE);
+        if (checkpoint == null) {
+            checkpoint = new BulkUpdateCheckpoint(jobName);
+            em.persist(checkpoint);
+        }
+        if (checkpoint.isCompleted()) {
+            return new BulkUpdateProgress(checkpoint);
+        }
+
+        BulkUpdateProgress chunk = updateChunk(age, chunkSize, checkpoint.getLastCompletedId());
+        if (chunk == null) {
+            checkpoint.complete();
+        } else {
+            checkpoint.chunkCompleted(chunk.getLastCompletedId(), chunk.getUpdatedRows());
+        }
+        return new BulkUpdateProgress(checkpoint);
+    }
+
+    /**
+     * (lastId, lastId 다음 chunkSize번째 id] 범위 수정
+     * @return 처리한 마지막 id와 수정 건수, 더 처리할 게 없으면 null
+     */
+    private BulkUpdateProgress updateChunk(int age, int chunkSize, long lastId) {
+        List<Long> boundary = em.createQuery("select m.id from Member m where m.id > :lastId order by m.id", Long.class)
+                .setParameter("lastId", lastId)
+                .setFirstResult(chunkSize - 1)
+                .setMaxResults(1)
+                .getResultList();
+
+        Long upper = boundary.isEmpty()
+                ? em.createQuery("select max(m.id) from Member m where m.id > :lastId", Long.class)
+                        .setParameter("lastId", lastId)
+                        .getSingleResult()
+                : boundary.get(0);
+        if (upper == null) {
+            return null;
+        }
+
+        int updated = em.createQuery("update versioned Member m set m.age = m.age + 1" +
+                        " where m.age >= :age and m.id > :lastId and m.id <= :upper")
+                .setParameter("age", age)
+                .setParameter("lastId", lastId)
+                .setParameter("upper", upper)
+                .executeUpdate();
+        return new BulkUpdateProgress(upper, 1, updated, false);
+    }
 }
@@ -0,0 +1,135 @@
+package study.datajpa.repository;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import study.datajpa.dto.MemberSearchCondition;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 회원 검색 JPQL을 조건 모양(어떤 조건이 있는지 + 정렬)별로 한 번만 만들어서 재사용
+ * 값은 모두 파라미터로 바인딩하므로 모양이 같으면 JPQL 문자열이 같고
+ * 하이버네이트 쿼리 플랜 캐시(문자열 기준)도 그대로 재사용됨
+ * 정렬은 허용된 속성만 (임의 문자열이 JPQL에 들어가지 않게)
+ */
+@Component
+public class MemberSearchQueryCache {
+
+    private static final int MAX_SORT_ORDERS = 3;
+
+    private static final Map<String, String> SORTABLE;
+
+    static {
+        Map<String, String> sortable = new HashMap<>();
+        sortable.put("id", "m.id");
+        sortable.put("username", "m.username");
+        sortable.put("age", "m.age");
+        sortable.put("teamName", "t.name");
+        SORTABLE = Collections.unmodifiableMap(sortable);
+    }
+
+    private final Map<String, SearchQuery> queries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public SearchQuery get(MemberSearchCondition condition, Sort sort) {
+        String key = shapeOf(condition, sort);
+        SearchQuery query = queries.get(key);
+        if (query != null) {
+            hits.increment();
+            return query;
+        }
+        misses.increment();
+        return queries.computeIfAbsent(key, k -> build(condition, sort));
+    }
+
+    public int getShapeCount() {
+        return queries.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    private static String shapeOf(MemberSearchCondition condition, Sort sort) {
+        StringBuilder key = new StringBuilder()
+                .append(StringUtils.hasText(condition.getUsernamePrefix()) ? 'U' : '-')
+                .append(condition.getAgeGoe() != null ? 'G' : '-')
+                .append(condition.getAgeLoe() != null ? 'L' : '-')
+                .append(StringUtils.hasText(condition.getTeamName()) ? 'T' : '-');
+        int orders = 0;
+        for (Sort.Order order : sort) {
+            if (!SORTABLE.containsKey(order.getProperty())) {
+                throw new IllegalArgumentException("정렬할 수 없는 속성입니다: " + order.getProperty());
+            }
+            if (++orders > MAX_SORT_ORDERS) {
+                throw new IllegalArgumentException("정렬 조건은 최대 " + MAX_SORT_ORDERS + "개입니다");
+            }
+            key.append('|').append(order.getProperty()).append(':').append(order.getDirection());
+        }
+        return key.toString();
+    }
+
+    private static SearchQuery build(MemberSearchCondition condition, Sort sort) {
+        List<String> where = new ArrayList<>();
+        if (StringUtils.hasText(condition.getUsernamePrefix())) {
+            where.add("m.username like :usernamePrefix escape '\\'");
+        }
+        if (condition.getAgeGoe() != null) {
+            where.add("m.age >= :ageGoe");
+        }
+        if (condition.getAgeLoe() != null) {
+            where.add("m.age <= :ageLoe");
+        }
+        boolean teamFilter = StringUtils.hasText(condition.getTeamName());
+        if (teamFilter) {
+            where.add("t.name = :teamName");
+        }
+        String whereClause = where.isEmpty() ? "" : " where " + String.join(" and ", where);
+
+        StringBuilder content = new StringBuilder(
+                "select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t")
+                .append(whereClause);
+        List<String> orderBy = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            orderBy.add(SORTABLE.get(order.getProperty()) + (order.isAscending() ? " asc" : " desc"));
+        }
+        if (!orderBy.isEmpty()) {
+            content.append(" order by ").append(String.join(", ", orderBy));
+        }
+
+        // 팀 조건이 없으면 count는 조인 없이
+        String count = "select count(m) from Member m" + (teamFilter ? " join m.team t" : "") + whereClause;
+        return new SearchQuery(content.toString(), count);
+    }
+
+    public static class SearchQuery {
+
+        private final String content;
+        private final String count;
+
+        SearchQuery(String content, String count) {
+            this.content = content;
+            this.count = count;
+        }
+
+        public String getContent() {
+            return content;
+        }
+
+        public String getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.annotation.After;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * 벌크성 수정쿼리는 영속성 컨텍스트(엔티티 리스너)를 거치지 않으므로
+ * 실행이 끝나면 직접 count 캐시를 무효화
+ * chunk 단위 수정은 실패해도 앞 chunk는 커밋되어 있으니 예외가 나도 무효화
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class PageCountInvalidationAspect {
+
+    private final PageCounter pageCounter;
+
+    @After("execution(* study.datajpa.repository.MemberRepository.bulkAgePlus(..))" +
+            " || execution(* study.datajpa.repository.MemberRepositoryCustom.bulkAgePlusInChunks(..))" +
+            " || execution(* study.datajpa.repository.MemberJpaRepository.bulkAgePlus(..))")
+    public void evictMemberCounts() {
+        pageCounter.evict("member");
+    }
+}
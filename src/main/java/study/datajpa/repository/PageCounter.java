@@ -0,0 +1,140 @@
+package study.datajpa.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * 페이징 totalCount 전략 처리
+ * 캐시는 엔티티(테이블) 단위로 묶어서 관리 -> 해당 엔티티에 쓰기가 일어나면 통째로 무효화
+ * 커밋 전 값이 캐시에 남지 않도록 무효화는 커밋 이후에, 읽기/쓰기 트랜잭션에서 구한 count는 캐시하지 않음
+ */
+@Component
+public class PageCounter {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long ttlNanos;
+
+    private final Map<String, Map<String, CachedCount>> cache = new ConcurrentHashMap<>();
+
+    public PageCounter(JdbcTemplate jdbcTemplate,
+                       @Value("${datajpa.page-count.cache-ttl:10s}") Duration ttl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * 조건 없이 테이블 전체 count (ESTIMATED 사용 가능)
+     */
+    public long count(String table, CountMode mode, LongSupplier exactCount) {
+        return count(table, null, mode, exactCount);
+    }
+
+    /**
+     * @param table      count 대상 테이블 (캐시 무효화 단위, 추정치 조회 대상)
+     * @param key        같은 테이블 안에서 조건을 구분하는 키 (ex. "age=10"), 조건이 없으면 null
+     * @param exactCount 실제 count 쿼리
+     * @throws IllegalArgumentException 조건이 있는데 ESTIMATED인 경우
+     */
+    public long count(String table, String key, CountMode mode, LongSupplier exactCount) {
+        checkMode(key, mode);
+        switch (mode) {
+            case CACHED:
+                return cachedCount(table, key, exactCount);
+            case ESTIMATED:
+                return estimatedCount(table, exactCount);
+            default:
+                return exactCount.getAsLong();
+        }
+    }
+
+    /**
+     * ESTIMATED는 테이블 전체 row 추정치라 조건이 있는 count에 쓰면 totalPages, hasNext가 완전히 틀어짐
+     * 페이징 쿼리 전에 미리 확인할 때도 사용 (count는 필요할 때만 실행되므로)
+     */
+    public static void checkMode(String key, CountMode mode) {
+        if (mode == CountMode.ESTIMATED && key != null) {
+            throw new IllegalArgumentException("ESTIMATED는 조건 없는 count에만 사용할 수 있습니다: " + key);
+        }
+    }
+
+    /**
+     * 트랜잭션 안이면 커밋 이후에 무효화
+     * flush 시점에 바로 지우면 커밋 전에 다른 트랜잭션이 이전 count를 다시 캐시할 수 있음
+     */
+    public void evict(String table) {
+        String region = table.toUpperCase();
+        cache.remove(region);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof EvictAfterCommit && ((EvictAfterCommit) synchronization).region.equals(region)) {
+                return;
+            }
+        }
+        TransactionSynchronizationManager.registerSynchronization(new EvictAfterCommit(region));
+    }
+
+    private long cachedCount(String table, String key, LongSupplier exactCount) {
+        Map<String, CachedCount> counts = cache.computeIfAbsent(table.toUpperCase(), t -> new ConcurrentHashMap<>());
+        long now = System.nanoTime();
+
+        String cacheKey = key == null ? "" : key;
+        CachedCount cached = counts.get(cacheKey);
+        if (cached != null && cached.expiresAt - now > 0) {
+            return cached.count;
+        }
+
+        long count = exactCount.getAsLong();
+        // 커밋 전 변경분이 섞였을 수 있는 값은 캐시하지 않음
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            counts.put(cacheKey, new CachedCount(count, now + ttlNanos));
+        }
+        return count;
+    }
+
+    private long estimatedCount(String table, LongSupplier exactCount) {
+        List<Long> estimate = jdbcTemplate.queryForList(
+                "select row_count_estimate from information_schema.tables where table_name = ?",
+                Long.class, table.toUpperCase());
+
+        // 통계가 없으면 정확한 count로 대체
+        if (estimate.isEmpty() || estimate.get(0) == null) {
+            return exactCount.getAsLong();
+        }
+        return estimate.get(0);
+    }
+
+    private class EvictAfterCommit implements TransactionSynchronization {
+        private final String region;
+
+        private EvictAfterCommit(String region) {
+            this.region = region;
+        }
+
+        @Override
+        public void afterCommit() {
+            cache.remove(region);
+        }
+    }
+
+    private static class CachedCount {
+        private final long count;
+        private final long expiresAt;
+
+        private CachedCount(long count, long expiresAt) {
+            this.count = count;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
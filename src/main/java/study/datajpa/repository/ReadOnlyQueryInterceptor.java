@@ -0,0 +1,41 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * 이미 열린 영속성 컨텍스트(쓰기 트랜잭션, OSIV)가 있으면 메서드 실행 동안만 세션 기본값을 읽기 전용으로 바꿈
+ * - 새로 로딩한 엔티티/프록시는 스냅샷 없이 읽기 전용 (em.find도 포함)
+ * - 이미 영속성 컨텍스트에 있던 엔티티는 그대로, flush 모드도 그대로 (쿼리 전 auto flush 됨)
+ * 없으면 @Transactional(readOnly = true)로 새로 시작한 트랜잭션이 세션 전체를 읽기 전용으로 만듦
+ * 메서드가 끝난 뒤에 로딩되는 결과(Stream 반환 등)에는 적용되지 않음
+ */
+@RequiredArgsConstructor
+class ReadOnlyQueryInterceptor implements MethodInterceptor {
+
+    private final EntityManagerFactory emf;
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        EntityManager em = EntityManagerFactoryUtils.getTransactionalEntityManager(emf);
+        if (em == null) {
+            return invocation.proceed();
+        }
+        Session session = em.unwrap(Session.class);
+        if (session.isDefaultReadOnly()) {
+            return invocation.proceed();
+        }
+        session.setDefaultReadOnly(true);
+        try {
+            return invocation.proceed();
+        } finally {
+            session.setDefaultReadOnly(false);
+        }
+    }
+}
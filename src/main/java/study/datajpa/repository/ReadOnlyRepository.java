@@ -0,0 +1,36 @@
+package study.datajpa.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 조회 전용 리포지토리 (저장/수정 메서드 없음)
+ * - 트랜잭션이 없으면 readOnly 트랜잭션을 새로 시작 -> 세션 전체가 읽기 전용, flush 안 함
+ * - 이미 쓰기 트랜잭션 안이면 그대로 참여하고 메서드 실행 동안만 새로 로딩하는 엔티티가 읽기 전용 (ReadOnlyQueryInterceptor)
+ *   flush 모드는 건드리지 않으므로 쿼리 전 auto flush도 그대로 되고,
+ *   이미 영속성 컨텍스트에 있던 엔티티는 읽기 전용이 되지 않음 (바깥에서 수정한 내용이 유실되지 않음)
+ * 상속한 리포지토리의 모든 메서드에 자동으로 적용됨 (ReadOnlyRepositoryFactoryBean, 힌트 불필요)
+ *
+ * 주의: 여기서 새로 조회한 엔티티는 수정해도 반영되지 않음
+ */
+@NoRepositoryBean
+@Transactional(readOnly = true)
+public interface ReadOnlyRepository<T, ID> extends Repository<T, ID> {
+
+    Optional<T> findById(ID id);
+
+    List<T> findAll();
+
+    List<T> findAll(Sort sort);
+
+    Page<T> findAll(Pageable pageable);
+
+    long count();
+}
@@ -0,0 +1,32 @@
+package study.datajpa.repository;
+
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactoryBean;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.core.support.RepositoryFactorySupport;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * ReadOnlyRepository를 상속한 리포지토리는 모든 메서드를 읽기 전용으로 실행 (ReadOnlyQueryInterceptor)
+ * 메서드마다 힌트를 붙이지 않아도 되므로 findById, 나중에 추가한 메서드 이름 쿼리, 사용자 정의 구현도 같이 적용됨
+ * ReadOnlyRepository를 상속한 리포지토리에만 사용 (RepositoryConfig의 includeFilters)
+ */
+public class ReadOnlyRepositoryFactoryBean<T extends Repository<S, ID>, S, ID> extends JpaRepositoryFactoryBean<T, S, ID> {
+
+    public ReadOnlyRepositoryFactoryBean(Class<? extends T> repositoryInterface) {
+        super(repositoryInterface);
+    }
+
+    @Override
+    protected RepositoryFactorySupport createRepositoryFactory(EntityManager entityManager) {
+        RepositoryFactorySupport factory = super.createRepositoryFactory(entityManager);
+        EntityManagerFactory emf = entityManager.getEntityManagerFactory();
+        factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) -> {
+            if (ReadOnlyRepository.class.isAssignableFrom(repositoryInformation.getRepositoryInterface())) {
+                proxyFactory.addAdvice(new ReadOnlyQueryInterceptor(emf));
+            }
+        });
+        return factory;
+    }
+}
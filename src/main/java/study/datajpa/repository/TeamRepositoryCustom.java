@@ -0,0 +1,12 @@
+package study.datajpa.repository;
+
+import study.datajpa.entity.Team;
+
+public interface TeamRepositoryCustom {
+
+    /**
+     * 대량 저장 (JDBC 배치 insert + batchSize마다 flush/clear)
+     * @return 저장한 건수
+     */
+    int saveAllBatched(Iterable<Team> teams, int batchSize);
+}
@@ -0,0 +1,17 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Team;
+
+@RequiredArgsConstructor
+public class TeamRepositoryImpl implements TeamRepositoryCustom {
+
+    private final BatchPersister batchPersister;
+
+    @Override
+    @Transactional
+    public int saveAllBatched(Iterable<Team> teams, int batchSize) {
+        return batchPersister.persistAll(teams, batchSize);
+    }
+}
@@ -0,0 +1,54 @@
+package study.datajpa.support;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 감사(생성/수정 시각)용 시계
+ * 엔티티마다 LocalDateTime.now()를 부르지 않고, 트랜잭션 안에서는 처음 구한 시각을 MAX_AGE 동안 재사용
+ * (같은 루프에서 연달아 저장하는 엔티티는 같은 시각, 오래 걸리는 트랜잭션에서도 최대 MAX_AGE만큼만 차이남)
+ * flush가 끝나면(AuditClockInterceptor) 다음 호출에서 새 시각을 구함
+ *
+ * 처음 요구는 "flush당 한 번"이었지만 flush 없이 오래 도는 트랜잭션에서 시각이 계속 고정되므로
+ * MAX_AGE가 지나면 새로 구하는 쪽으로 바꿈 (flush 경계는 그대로 유지)
+ */
+public final class AuditClock {
+
+    static final long MAX_AGE_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private static final TransactionScopedValue<Stamp> NOW = new TransactionScopedValue<>(Stamp::new);
+
+    private static volatile Clock clock = Clock.systemDefaultZone();
+    private static volatile LongSupplier nanoClock = System::nanoTime;
+
+    private AuditClock() {
+    }
+
+    public static LocalDateTime now() {
+        Stamp stamp = NOW.get();
+        if (nanoClock.getAsLong() - stamp.nanos > MAX_AGE_NANOS) {
+            NOW.reset();
+            stamp = NOW.get();
+        }
+        return stamp.time;
+    }
+
+    public static void flushCompleted() {
+        NOW.reset();
+    }
+
+    /**
+     * 테스트에서 시간을 직접 진행시킬 때 사용, null이면 시스템 시계로 되돌림
+     */
+    static void useClock(Clock wallClock, LongSupplier nanos) {
+        clock = wallClock == null ? Clock.systemDefaultZone() : wallClock;
+        nanoClock = nanos == null ? System::nanoTime : nanos;
+    }
+
+    private static class Stamp {
+        private final LocalDateTime time = LocalDateTime.now(clock);
+        private final long nanos = nanoClock.getAsLong();
+    }
+}
@@ -0,0 +1,17 @@
+package study.datajpa.support;
+
+import org.hibernate.EmptyInterceptor;
+
+import java.util.Iterator;
+
+/**
+ * flush가 끝날 때마다 AuditClock 시각을 갱신
+ * 세션 팩토리 전체에서 공유되므로 상태를 가지면 안 됨
+ */
+public class AuditClockInterceptor extends EmptyInterceptor {
+
+    @Override
+    public void postFlush(Iterator entities) {
+        AuditClock.flushCompleted();
+    }
+}
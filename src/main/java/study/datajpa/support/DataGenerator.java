@@ -0,0 +1,176 @@
+package study.datajpa.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.PageCounter;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 부하 테스트/벤치마크용 대량 데이터 생성 (H2)
+ * 영속성 컨텍스트를 거치지 않고 JDBC 배치로 바로 넣고, 배치마다 커밋(auto-commit)
+ * 트랜잭션 안에서 호출하면 그 트랜잭션에 참여 (테스트에서는 롤백됨)
+ *
+ * - 팀 크기: Zipf 분포 (소수의 팀에 회원이 몰림), 일부 회원은 팀 없음
+ * - username: "user{n}" 을 Zipf 분포로 뽑음 (인기 이름은 많은 회원이 공유)
+ * - age: 0~99 균등
+ *
+ * 하이버네이트를 거치지 않으므로 2차 캐시/쿼리 캐시는 무효화되지 않음 (애플리케이션 시작 시점에 실행할 것)
+ */
+@Slf4j
+@Component
+public class DataGenerator {
+
+    private static final int BATCH_SIZE = 1000;
+    // Item은 id를 직접 지정하는 엔티티라 JPA가 시퀀스를 만들지 않음, 다시 실행해도 id가 겹치지 않게 따로 둠
+    private static final String ITEM_SEQUENCE = "generated_item_seq";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PageCounter pageCounter;
+    private final EntityManagerFactory emf;
+
+    public DataGenerator(JdbcTemplate jdbcTemplate, PageCounter pageCounter, EntityManagerFactory emf) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.pageCounter = pageCounter;
+        this.emf = emf;
+    }
+
+    /**
+     * @param teamSkew          팀 크기 쏠림 정도
+     * @param usernameCount     username 종류 수
+     * @param usernameSkew      username 쏠림 정도
+     * @param noTeamRatio       팀 없는 회원 비율
+     * @param seed              같은 seed면 같은 데이터
+     */
+    public void generate(int teams, int members, int items, double teamSkew,
+                         int usernameCount, double usernameSkew, double noTeamRatio, long seed) {
+        long start = System.nanoTime();
+        Random random = new Random(seed);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        createItemSequence();
+        IdSequence teamSequence = idSequence(Team.class);
+        IdSequence memberSequence = idSequence(Member.class);
+
+        long firstTeamId = nextFreeId("team", "team_id", teamSequence);
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < teams; i++) {
+            rows.add(new Object[]{firstTeamId + i, "team" + (firstTeamId + i), now, now});
+            rows = flushIfFull("insert into team (team_id, name, created_date, updated_date) values (?, ?, ?, ?)", rows);
+        }
+        flush("insert into team (team_id, name, created_date, updated_date) values (?, ?, ?, ?)", rows);
+        restartSequence(teamSequence, firstTeamId + teams - 1);
+
+        ZipfDistribution teamDistribution = teams == 0 ? null : new ZipfDistribution(teams, teamSkew);
+        ZipfDistribution usernameDistribution = new ZipfDistribution(Math.max(usernameCount, 1), usernameSkew);
+        String memberSql = "insert into member (member_id, username, age, team_id, version) values (?, ?, ?, ?, 0)";
+
+        long firstMemberId = nextFreeId("member", "member_id", memberSequence);
+        rows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < members; i++) {
+            Long teamId = teamDistribution == null || random.nextDouble() < noTeamRatio
+                    ? null : firstTeamId + teamDistribution.sample(random) - 1;
+            rows.add(new Object[]{firstMemberId + i, "user" + usernameDistribution.sample(random),
+                    random.nextInt(100), teamId});
+            rows = flushIfFull(memberSql, rows);
+        }
+        flush(memberSql, rows);
+        restartSequence(memberSequence, firstMemberId + members - 1);
+
+        rows = new ArrayList<>(BATCH_SIZE);
+        List<Long> itemIds = jdbcTemplate.queryForList(
+                "select next value for " + ITEM_SEQUENCE + " from system_range(1, ?)", Long.class, items);
+        for (Long itemId : itemIds) {
+            rows.add(new Object[]{"item-" + itemId, now});
+            rows = flushIfFull("insert into item (id, created_date) values (?, ?)", rows);
+        }
+        flush("insert into item (id, created_date) values (?, ?)", rows);
+
+        pageCounter.evict("member");
+        log.info("generated {} teams, {} members, {} items in {}ms",
+                teams, members, items, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * DDL은 진행 중인 트랜잭션을 커밋해버리므로 트랜잭션과 상관없는 별도 커넥션에서 실행
+     */
+    private void createItemSequence() {
+        try (Connection connection = jdbcTemplate.getDataSource().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("create sequence if not exists " + ITEM_SEQUENCE);
+        } catch (SQLException e) {
+            throw jdbcTemplate.getExceptionTranslator().translate("create item sequence", null, e);
+        }
+    }
+
+    /**
+     * 엔티티에 매핑된 시퀀스 이름과 블록 크기(@SequenceGenerator의 allocationSize)
+     * 매핑에서 읽으므로 allocationSize를 바꿔도 JPA가 발급하는 id와 겹치지 않음
+     */
+    private IdSequence idSequence(Class<?> entityClass) {
+        IdentifierGenerator generator = emf.unwrap(SessionFactoryImplementor.class)
+                .getMetamodel()
+                .entityPersister(entityClass)
+                .getIdentifierGenerator();
+        if (!(generator instanceof SequenceStyleGenerator)) {
+            throw new IllegalStateException(entityClass.getSimpleName() + " id는 시퀀스로 생성하지 않습니다: " + generator);
+        }
+        SequenceStyleGenerator sequenceGenerator = (SequenceStyleGenerator) generator;
+        return new IdSequence(sequenceGenerator.getDatabaseStructure().getName(),
+                sequenceGenerator.getOptimizer().getIncrementSize());
+    }
+
+    /**
+     * 기존 데이터, 이미 발급된 시퀀스 블록(pooled)과 겹치지 않는 첫 id
+     */
+    private long nextFreeId(String table, String idColumn, IdSequence sequence) {
+        Long maxId = jdbcTemplate.queryForObject("select coalesce(max(" + idColumn + "), 0) from " + table, Long.class);
+        Long sequenceValue = jdbcTemplate.queryForObject("select next value for " + sequence.name, Long.class);
+        return Math.max(maxId, sequenceValue) + 1;
+    }
+
+    /**
+     * pooled 최적화는 시퀀스 값 아래로 블록 크기만큼을 쓰기 때문에 그만큼 더 띄움
+     */
+    private void restartSequence(IdSequence sequence, long maxId) {
+        jdbcTemplate.execute("alter sequence " + sequence.name + " restart with " + (maxId + sequence.incrementSize + 1));
+    }
+
+    private List<Object[]> flushIfFull(String sql, List<Object[]> rows) {
+        if (rows.size() < BATCH_SIZE) {
+            return rows;
+        }
+        flush(sql, rows);
+        return new ArrayList<>(BATCH_SIZE);
+    }
+
+    private void flush(String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, rows);
+        }
+    }
+
+    private static class IdSequence {
+        private final String name;
+        private final int incrementSize;
+
+        private IdSequence(String name, int incrementSize) {
+            this.name = name;
+            this.incrementSize = incrementSize;
+        }
+    }
+}
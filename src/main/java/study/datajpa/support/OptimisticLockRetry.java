@@ -0,0 +1,72 @@
+package study.datajpa.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.OptimisticLockException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * 낙관적 락 충돌 시 재시도
+ * 시도마다 새 트랜잭션(새 영속성 컨텍스트)에서 다시 읽고 수정해야 의미가 있으므로 트랜잭션 밖에서 호출해야 함
+ * 재시도 간격은 지수 백오프 + 지터 (동시에 충돌한 요청들이 또 같이 충돌하지 않게)
+ */
+@Slf4j
+@Component
+public class OptimisticLockRetry {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    public OptimisticLockRetry(PlatformTransactionManager transactionManager,
+                               @Value("${datajpa.optimistic-retry.max-attempts:5}") int maxAttempts,
+                               @Value("${datajpa.optimistic-retry.initial-backoff:10ms}") Duration initialBackoff,
+                               @Value("${datajpa.optimistic-retry.max-backoff:500ms}") Duration maxBackoff) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoff.toMillis();
+        this.maxBackoffMillis = maxBackoff.toMillis();
+    }
+
+    /**
+     * @param work 한 트랜잭션 안에서 실행할 작업 (조회 -> 수정)
+     * @throws OptimisticLockingFailureException maxAttempts 만큼 시도해도 충돌한 경우
+     */
+    public <T> T execute(Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("OptimisticLockRetry는 트랜잭션 밖에서 호출해야 합니다");
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                log.debug("optimistic lock conflict, retry {}/{}", attempt, maxAttempts - 1);
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+        long sleep = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            Thread.sleep(sleep);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting to retry", e);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package study.datajpa.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.core.support.AbstractRepositoryMetadata;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.metamodel.EntityType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 엔티티의 @NamedQuery와 리포지토리의 @Query(JPQL) 문자열을 시작할 때 병렬로 파싱/검증
+ * @Query의 스프링 데이터 전용 문법은 normalize()로 바꾼 뒤 검증
+ * hibernate.query.startup_check=false 로 세션 팩토리 생성 중 순차 검증을 끄고 대신 사용
+ * 파싱 결과는 하이버네이트 쿼리 플랜 캐시에 남으므로 리포지토리 생성, 첫 호출 때 다시 파싱하지 않음
+ * 잘못된 쿼리가 있으면 startup_check처럼 시작 실패
+ */
+@Slf4j
+public class QueryPreValidator implements SmartInitializingSingleton {
+
+    private static final Pattern ENTITY_NAME = Pattern.compile("#\\{\\s*#entityName\\s*}");
+    private static final Pattern LIKE_PARAMETER = Pattern.compile("(?i)(\\blike\\s+)%?(:\\w+|\\?\\d*)%?");
+
+    private final EntityManagerFactory emf;
+    private final AsyncTaskExecutor executor;
+    private final ApplicationStartup applicationStartup;
+    private final List<String> basePackages;
+
+    private volatile int validatedCount;
+
+    public QueryPreValidator(EntityManagerFactory emf, AsyncTaskExecutor executor,
+                             ApplicationStartup applicationStartup, List<String> basePackages) {
+        this.emf = emf;
+        this.executor = executor;
+        this.applicationStartup = applicationStartup;
+        this.basePackages = basePackages;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        StartupStep step = applicationStartup.start("datajpa.queries.validate");
+        Map<String, String> queries = collectQueries();
+        List<String> errors = validate(queries);
+        step.tag("queries", String.valueOf(queries.size()));
+        step.end();
+
+        if (!errors.isEmpty()) {
+            throw new IllegalStateException("잘못된 쿼리가 있습니다:\n" + String.join("\n", errors));
+        }
+        validatedCount = queries.size();
+        log.info("validated {} queries", queries.size());
+    }
+
+    public int getValidatedCount() {
+        return validatedCount;
+    }
+
+    /**
+     * @param queries 출처(ex. "MemberRepository.findUser") -> JPQL
+     * @return 실패한 쿼리별 오류 메시지
+     */
+    public List<String> validate(Map<String, String> queries) {
+        SessionFactoryImplementor sessionFactory = emf.unwrap(SessionFactoryImplementor.class);
+        List<CompletableFuture<String>> results = queries.entrySet().stream()
+                .map(query -> CompletableFuture.supplyAsync(() -> validate(sessionFactory, query), executor))
+                .collect(Collectors.toList());
+
+        List<String> errors = new ArrayList<>();
+        for (CompletableFuture<String> result : results) {
+            String error = result.join();
+            if (error != null) {
+                errors.add(error);
+            }
+        }
+        return errors;
+    }
+
+    private static String validate(SessionFactoryImplementor sessionFactory, Map.Entry<String, String> query) {
+        try {
+            sessionFactory.getQueryPlanCache().getHQLQueryPlan(query.getValue(), false, Collections.emptyMap());
+            return null;
+        } catch (RuntimeException e) {
+            return query.getKey() + ": " + e.getMessage();
+        }
+    }
+
+    private Map<String, String> collectQueries() {
+        Map<String, String> queries = new LinkedHashMap<>();
+
+        for (EntityType<?> entity : emf.getMetamodel().getEntities()) {
+            Class<?> type = entity.getJavaType();
+            NamedQueries namedQueries = type.getAnnotation(NamedQueries.class);
+            if (namedQueries != null) {
+                for (NamedQuery namedQuery : namedQueries.value()) {
+                    queries.put(namedQuery.name(), namedQuery.query());
+                }
+            }
+            NamedQuery namedQuery = type.getAnnotation(NamedQuery.class);
+            if (namedQuery != null) {
+                queries.put(namedQuery.name(), namedQuery.query());
+            }
+        }
+
+        for (Class<?> repository : findRepositoryInterfaces()) {
+            String entityName = entityName(repository);
+            for (Method method : repository.getDeclaredMethods()) {
+                Query query = method.getAnnotation(Query.class);
+                if (query == null || query.nativeQuery()) {
+                    continue;
+                }
+                String source = repository.getSimpleName() + "." + method.getName();
+                putNormalized(queries, source + "#" + queries.size(), query.value(), entityName);
+                putNormalized(queries, source + "(count)#" + queries.size(), query.countQuery(), entityName);
+            }
+        }
+        return queries;
+    }
+
+    private static void putNormalized(Map<String, String> queries, String source, String query, String entityName) {
+        if (!StringUtils.hasText(query)) {
+            return;
+        }
+        String normalized = normalize(query, entityName);
+        if (normalized == null) {
+            log.debug("skip {}: SpEL expression can only be checked at runtime", source);
+            return;
+        }
+        queries.put(source, normalized);
+    }
+
+    /**
+     * 스프링 데이터 JPA 전용 문법을 하이버네이트가 파싱할 수 있는 JPQL로 바꿈 (StringQuery가 실행 전에 하는 것과 같은 처리)
+     * - #{#entityName} -> 리포지토리 도메인 타입의 엔티티 이름
+     * - like %:name% / like ?1% 의 % -> 제거 (실제로는 바인딩 값에 붙여서 넘김)
+     * 그 밖의 SpEL(:#{...}, ?#{...})이 남아 있으면 실행 시점 값이 필요하므로 null (검증 생략)
+     *
+     * @param entityName 리포지토리 도메인 타입의 엔티티 이름, 모르면 null
+     */
+    public static String normalize(String query, String entityName) {
+        String normalized = query;
+        if (entityName != null) {
+            normalized = ENTITY_NAME.matcher(normalized).replaceAll(Matcher.quoteReplacement(entityName));
+        }
+        if (normalized.contains("#{")) {
+            return null;
+        }
+        return LIKE_PARAMETER.matcher(normalized).replaceAll("$1$2");
+    }
+
+    private String entityName(Class<?> repository) {
+        try {
+            Class<?> domainType = AbstractRepositoryMetadata.getMetadata(repository).getDomainType();
+            return emf.getMetamodel().entity(domainType).getName();
+        } catch (RuntimeException e) {
+            // @NoRepositoryBean 베이스 인터페이스처럼 도메인 타입이 정해지지 않은 경우
+            return null;
+        }
+    }
+
+    private List<Class<?>> findRepositoryInterfaces() {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
+                return beanDefinition.getMetadata().isInterface();
+            }
+        };
+        scanner.addIncludeFilter(new AssignableTypeFilter(Repository.class));
+
+        List<Class<?>> result = new ArrayList<>();
+        for (String basePackage : basePackages) {
+            for (BeanDefinition candidate : scanner.findCandidateComponents(basePackage)) {
+                result.add(ClassUtils.resolveClassName(candidate.getBeanClassName(), getClass().getClassLoader()));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,40 @@
+package study.datajpa.support;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 읽기 전용 트랜잭션은 replica, 나머지는 primary
+ * 트랜잭션 시작 시점에는 readOnly 여부가 아직 설정되지 않으므로 LazyConnectionDataSourceProxy로 감싸서
+ * 실제 SQL을 실행할 때 커넥션을 고르게 해야 함
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private final long replicaLagNanos;
+
+    public ReadWriteRoutingDataSource(long replicaLagNanos) {
+        this.replicaLagNanos = replicaLagNanos;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return ReplicationLagGuard.writtenWithin(replicaLagNanos) ? PRIMARY : REPLICA;
+        }
+
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ReplicationLagGuard.writeCommitted();
+                }
+            });
+        }
+        return PRIMARY;
+    }
+}
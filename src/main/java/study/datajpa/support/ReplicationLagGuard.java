@@ -0,0 +1,27 @@
+package study.datajpa.support;
+
+/**
+ * 쓰기 직후 읽기가 아직 복제되지 않은 레플리카로 가지 않게 막음
+ * 쓰기 트랜잭션이 커밋되면 기록해두고, window 동안 같은 스레드의 읽기는 primary로 보냄
+ * 스레드 단위이므로 같은 요청(스레드)에서의 read-your-writes만 보장
+ */
+public final class ReplicationLagGuard {
+
+    private static final ThreadLocal<Long> LAST_WRITE = new ThreadLocal<>();
+
+    private ReplicationLagGuard() {
+    }
+
+    public static void writeCommitted() {
+        LAST_WRITE.set(System.nanoTime());
+    }
+
+    public static boolean writtenWithin(long windowNanos) {
+        Long lastWrite = LAST_WRITE.get();
+        return lastWrite != null && System.nanoTime() - lastWrite < windowNanos;
+    }
+
+    public static void reset() {
+        LAST_WRITE.remove();
+    }
+}
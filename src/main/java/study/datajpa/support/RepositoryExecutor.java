@@ -0,0 +1,144 @@
+package study.datajpa.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 리포지토리 비동기 실행 전용 executor
+ * 동시에 실행되는 작업 수를 커넥션 풀 크기로 제한하고, 대기열도 queueCapacity로 제한 (넘치면 TaskRejectedException)
+ *
+ * virtualThreads = true 이고 JVM이 지원하면(JDK 21+) 작업마다 가상 스레드를 쓰고 세마포어로 동시 실행 수를 제한
+ * 지원하지 않으면 고정 크기 스레드 풀로 동작
+ */
+@Slf4j
+public class RepositoryExecutor implements Executor {
+
+    private final int poolSize;
+    private final int queueCapacity;
+    private final ExecutorService delegate;
+    private final Semaphore permits; // 가상 스레드일 때만 사용
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public RepositoryExecutor(int poolSize, int queueCapacity, boolean virtualThreads) {
+        this.poolSize = poolSize;
+        this.queueCapacity = queueCapacity;
+
+        ExecutorService virtual = virtualThreads ? newVirtualThreadExecutor() : null;
+        if (virtual != null) {
+            this.delegate = virtual;
+            this.permits = new Semaphore(poolSize);
+        } else {
+            AtomicInteger threadNumber = new AtomicInteger();
+            this.delegate = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(queueCapacity),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "repository-" + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            this.permits = null;
+        }
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        // 가상 스레드는 바로 시작하고 세마포어에서 기다리므로 대기열 제한을 직접 검사
+        // 동시에 제출해도 한도를 넘지 않도록 먼저 늘리고 비교, 넘으면 되돌리고 거부
+        long submittedAt = System.nanoTime();
+        if (queued.incrementAndGet() > queueCapacity && permits != null) {
+            queued.decrementAndGet();
+            throw new TaskRejectedException("repository executor queue is full (" + queueCapacity + ")");
+        }
+        try {
+            delegate.execute(() -> run(SqlStatementCounter.wrap(task), submittedAt));
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            throw new TaskRejectedException("repository executor queue is full (" + queueCapacity + ")", e);
+        }
+    }
+
+    private void run(Runnable task, long submittedAt) {
+        if (permits != null) {
+            permits.acquireUninterruptibly();
+        }
+        try {
+            long waited = System.nanoTime() - submittedAt;
+            queued.decrementAndGet();
+            started.increment();
+            totalWaitNanos.add(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+
+            task.run();
+        } finally {
+            if (permits != null) {
+                permits.release();
+            }
+        }
+    }
+
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public boolean isVirtualThreads() {
+        return permits != null;
+    }
+
+    /**
+     * 제출됐지만 아직 시작 못한 작업 수
+     */
+    public int getQueueDepth() {
+        return queued.get();
+    }
+
+    public long getStartedCount() {
+        return started.sum();
+    }
+
+    public long getTotalWaitNanos() {
+        return totalWaitNanos.sum();
+    }
+
+    public long getMaxWaitNanos() {
+        return maxWaitNanos.get();
+    }
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor() (JDK 21+), 없으면 null
+     * 소스 레벨이 1.8이라 리플렉션으로 호출
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            log.info("virtual threads not available, falling back to a fixed thread pool: {}", e.toString());
+            return null;
+        }
+    }
+}
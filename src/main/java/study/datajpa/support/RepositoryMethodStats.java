@@ -0,0 +1,44 @@
+package study.datajpa.support;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 리포지토리 메서드 하나의 호출 수, 지연 시간, 반환 행 수, 예외 수
+ */
+public class RepositoryMethodStats {
+
+    private final String method;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    public RepositoryMethodStats(String method) {
+        this.method = method;
+    }
+
+    public void record(long nanos, long rowCount, boolean failed) {
+        latency.record(nanos);
+        if (rowCount > 0) {
+            rows.add(rowCount);
+        }
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public long getRows() {
+        return rows.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+}
@@ -0,0 +1,74 @@
+package study.datajpa.support;
+
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 리포지토리 메서드별 통계 보관 (RepositoryMetricsAspect가 기록)
+ * 키(리포지토리 타입, 메서드)가 고정이라 메서드 수만큼만 생김
+ */
+@Component
+public class RepositoryMetrics {
+
+    private static final ThreadLocal<String> CURRENT_METHOD = new ThreadLocal<>();
+
+    private final Map<Class<?>, Map<Method, RepositoryMethodStats>> statsByType = new ConcurrentHashMap<>();
+
+    /**
+     * 현재 스레드에서 실행 중인 리포지토리 메서드 (SQL이 어디서 나갔는지 남길 때 사용), 없으면 null
+     */
+    public static String currentMethod() {
+        return CURRENT_METHOD.get();
+    }
+
+    /**
+     * @return 바깥 리포지토리 메서드 (exit에 다시 넘겨서 복원)
+     */
+    static String enter(String method) {
+        String previous = CURRENT_METHOD.get();
+        CURRENT_METHOD.set(method);
+        return previous;
+    }
+
+    static void exit(String previous) {
+        if (previous == null) {
+            CURRENT_METHOD.remove();
+        } else {
+            CURRENT_METHOD.set(previous);
+        }
+    }
+
+    public RepositoryMethodStats stats(Class<?> repositoryType, Method method) {
+        return statsByType
+                .computeIfAbsent(repositoryType, type -> new ConcurrentHashMap<>())
+                .computeIfAbsent(method, m -> new RepositoryMethodStats(name(repositoryType, m)));
+    }
+
+    public List<RepositoryMethodStats> getAll() {
+        List<RepositoryMethodStats> result = new ArrayList<>();
+        statsByType.values().forEach(byMethod -> result.addAll(byMethod.values()));
+        return result;
+    }
+
+    public void clear() {
+        statsByType.clear();
+    }
+
+    private static String name(Class<?> repositoryType, Method method) {
+        StringBuilder sb = new StringBuilder(repositoryType.getSimpleName())
+                .append('.').append(method.getName()).append('(');
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(parameterTypes[i].getSimpleName());
+        }
+        return sb.append(')').toString();
+    }
+}
@@ -0,0 +1,92 @@
+package study.datajpa.support;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * 스프링 데이터 리포지토리(MemberRepository, TeamRepository, ItemRepository)와
+ * 직접 만든 @Repository 클래스(MemberJpaRepository, TeamJpaRepository ...)의 모든 메서드 실행 시간 측정
+ * 비동기 메서드(CompletableFuture)는 완료 시점까지 측정
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class RepositoryMetricsAspect {
+
+    private final RepositoryMetrics metrics;
+
+    // 스프링 데이터 리포지토리 프록시 클래스 -> 리포지토리 인터페이스
+    private final Map<Class<?>, Class<?>> repositoryTypes = new ConcurrentHashMap<>();
+
+    @Around("target(org.springframework.data.repository.Repository)" +
+            " || @within(org.springframework.stereotype.Repository)")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        RepositoryMethodStats stats = metrics.stats(
+                repositoryType(joinPoint.getTarget()), ((MethodSignature) joinPoint.getSignature()).getMethod());
+
+        String outer = RepositoryMetrics.enter(stats.getMethod());
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            stats.record(System.nanoTime() - start, 0, true);
+            throw e;
+        } finally {
+            RepositoryMetrics.exit(outer);
+        }
+
+        if (result instanceof CompletionStage) {
+            ((CompletionStage<?>) result).whenComplete((value, e) ->
+                    stats.record(System.nanoTime() - start, rowCount(value), e != null));
+        } else {
+            stats.record(System.nanoTime() - start, rowCount(result), false);
+        }
+        return result;
+    }
+
+    private Class<?> repositoryType(Object target) {
+        return repositoryTypes.computeIfAbsent(target.getClass(), type -> {
+            for (Class<?> candidate : ClassUtils.getAllInterfacesForClassAsSet(type)) {
+                if (Repository.class.isAssignableFrom(candidate) && candidate.getName().startsWith("study.datajpa")) {
+                    return candidate;
+                }
+            }
+            return ClassUtils.getUserClass(type);
+        });
+    }
+
+    private static long rowCount(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Slice) {
+            return ((Slice<?>) result).getNumberOfElements();
+        }
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        // Stream은 다 읽기 전까지 행 수를 알 수 없음
+        if (result instanceof Number || result instanceof Boolean || result instanceof Stream) {
+            return 0;
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,36 @@
+package study.datajpa.support;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 느린 SQL 한 건
+ * plan은 샘플링된 건만 별도 스레드에서 나중에 채워짐
+ */
+@Getter
+public class SlowQuery {
+
+    private final LocalDateTime executedAt;
+    private final String sql;
+    private final String sqlWithValues;
+    private final double durationMillis;
+    private final String repositoryMethod;
+    private final String thread;
+    private final String error;
+    private volatile String plan;
+
+    public SlowQuery(String sql, String sqlWithValues, long durationNanos, String repositoryMethod, String error) {
+        this.executedAt = LocalDateTime.now();
+        this.sql = sql;
+        this.sqlWithValues = sqlWithValues;
+        this.durationMillis = durationNanos / 1_000_000.0;
+        this.repositoryMethod = repositoryMethod;
+        this.thread = Thread.currentThread().getName();
+        this.error = error;
+    }
+
+    void setPlan(String plan) {
+        this.plan = plan;
+    }
+}
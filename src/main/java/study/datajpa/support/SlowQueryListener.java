@@ -0,0 +1,51 @@
+package study.datajpa.support;
+
+import com.p6spy.engine.common.PreparedStatementInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.common.Value;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * threshold 넘은 SQL만 SlowQueryLog에 기록
+ * 바인딩 값이 들어간 SQL, 바인딩 값 복사는 느린 건에 대해서만 만듦
+ */
+@Component
+@RequiredArgsConstructor
+public class SlowQueryListener extends SimpleJdbcEventListener {
+
+    private final SlowQueryLog slowQueryLog;
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        if (!slowQueryLog.isSlow(timeElapsedNanos)) {
+            return;
+        }
+        slowQueryLog.record(new SlowQuery(
+                statementInformation.getSql(),
+                statementInformation.getSqlWithValues(),
+                timeElapsedNanos,
+                RepositoryMetrics.currentMethod(),
+                e == null ? null : e.getMessage()),
+                parametersOf(statementInformation));
+    }
+
+    /**
+     * PreparedStatement의 바인딩 값 (1번부터 순서대로), 일반 Statement면 빈 배열
+     * 같은 PreparedStatement를 다시 실행하면 값이 바뀌므로 복사해 둠
+     */
+    private static Object[] parametersOf(StatementInformation statementInformation) {
+        if (!(statementInformation instanceof PreparedStatementInformation)) {
+            return new Object[0];
+        }
+        Map<Integer, Value> values = ((PreparedStatementInformation) statementInformation).getParameterValues();
+        int count = values.keySet().stream().mapToInt(Integer::intValue).max().orElse(0);
+        Object[] parameters = new Object[count];
+        values.forEach((index, value) -> parameters[index - 1] = value == null ? null : value.getValue());
+        return parameters;
+    }
+}
@@ -0,0 +1,146 @@
+package study.datajpa.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * threshold 이상 걸린 SQL을 최근 capacity건까지 보관 (링 버퍼, 오래된 것부터 덮어씀)
+ * select 중 explain-sample-rate 비율만큼은 별도 스레드에서 EXPLAIN을 떠서 같이 보관
+ * 같은 SQL(파라미터 바인딩 전 기준)의 실행계획은 재사용
+ * EXPLAIN은 바인딩 전 SQL을 그대로 준비하고 실행 때 바인딩된 값을 다시 바인딩 (값을 SQL 문자열에 이어 붙이지 않음)
+ *
+ * 전체 SQL 로그를 켜지 않고도 인덱스가 필요한 쿼리를 찾는 용도
+ */
+@Slf4j
+@Component
+public class SlowQueryLog implements DisposableBean {
+
+    private static final int PLAN_CACHE_SIZE = 100;
+
+    // EXPLAIN 자체도 p6spy를 거치므로 explain 스레드에서 나간 SQL은 기록하지 않음
+    private static final ThreadLocal<Boolean> EXPLAINING = new ThreadLocal<>();
+
+    private final long thresholdNanos;
+    private final double explainSampleRate;
+    private final ObjectProvider<JdbcTemplate> jdbcTemplate;
+
+    private final AtomicReferenceArray<SlowQuery> buffer;
+    private final AtomicLong sequence = new AtomicLong();
+    private final ThreadPoolExecutor explainer;
+    private final Map<String, String> planCache = Collections.synchronizedMap(
+            new LinkedHashMap<String, String>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                    return size() > PLAN_CACHE_SIZE;
+                }
+            });
+
+    /**
+     * JdbcTemplate -> DataSource -> p6spy 리스너(이 빈) 순환 참조를 피하려고 ObjectProvider로 받음
+     */
+    public SlowQueryLog(@Value("${datajpa.slow-query.threshold:100ms}") Duration threshold,
+                        @Value("${datajpa.slow-query.capacity:200}") int capacity,
+                        @Value("${datajpa.slow-query.explain-sample-rate:0.1}") double explainSampleRate,
+                        ObjectProvider<JdbcTemplate> jdbcTemplate) {
+        this.thresholdNanos = threshold.toNanos();
+        this.explainSampleRate = explainSampleRate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.buffer = new AtomicReferenceArray<>(capacity);
+        // 밀리면 버림 (EXPLAIN 때문에 애플리케이션이 느려지면 안 됨)
+        this.explainer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(capacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "slow-query-explain");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    public boolean isSlow(long elapsedNanos) {
+        return elapsedNanos >= thresholdNanos && EXPLAINING.get() == null;
+    }
+
+    public void record(SlowQuery query, Object[] parameters) {
+        buffer.set((int) (sequence.getAndIncrement() % buffer.length()), query);
+        log.warn("slow query {}ms [{}] {}", query.getDurationMillis(), query.getRepositoryMethod(), query.getSql());
+
+        if (!isSelect(query.getSql())) {
+            return;
+        }
+        String plan = planCache.get(query.getSql());
+        if (plan != null) {
+            query.setPlan(plan);
+        } else if (ThreadLocalRandom.current().nextDouble() < explainSampleRate) {
+            explainer.execute(() -> explain(query, parameters));
+        }
+    }
+
+    /**
+     * 최근 것부터
+     */
+    public List<SlowQuery> getRecent() {
+        long end = sequence.get();
+        long start = Math.max(0, end - buffer.length());
+        List<SlowQuery> result = new ArrayList<>();
+        for (long i = end - 1; i >= start; i--) {
+            SlowQuery query = buffer.get((int) (i % buffer.length()));
+            if (query != null) {
+                result.add(query);
+            }
+        }
+        return result;
+    }
+
+    public void clear() {
+        for (int i = 0; i < buffer.length(); i++) {
+            buffer.set(i, null);
+        }
+        sequence.set(0);
+        planCache.clear();
+    }
+
+    /**
+     * 실패하면(바인딩할 수 없는 타입 등) 실행계획 없이 둠
+     */
+    private void explain(SlowQuery query, Object[] parameters) {
+        EXPLAINING.set(Boolean.TRUE);
+        try {
+            List<String> rows = jdbcTemplate.getObject()
+                    .queryForList("explain " + query.getSql(), String.class, parameters);
+            String plan = String.join("\n", rows);
+            planCache.put(query.getSql(), plan);
+            query.setPlan(plan);
+        } catch (RuntimeException e) {
+            log.debug("explain failed: {}", query.getSql(), e);
+        } finally {
+            EXPLAINING.remove();
+        }
+    }
+
+    private static boolean isSelect(String sql) {
+        String trimmed = sql.trim();
+        return trimmed.regionMatches(true, 0, "select", 0, 6);
+    }
+
+    @Override
+    public void destroy() {
+        explainer.shutdownNow();
+    }
+}
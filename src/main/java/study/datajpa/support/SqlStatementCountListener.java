@@ -0,0 +1,25 @@
+package study.datajpa.support;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+
+/**
+ * p6spy 리스너로 실행되는 모든 SQL을 SqlStatementCounter에 기록
+ * (p6spy-spring-boot-starter가 JdbcEventListener 빈을 자동으로 등록해줌)
+ * 배치는 executeBatch 한 번을 한 건으로 셈
+ */
+@Component
+@RequiredArgsConstructor
+public class SqlStatementCountListener extends SimpleJdbcEventListener {
+
+    private final SqlStatementCounter counter;
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        counter.record(statementInformation.getSql());
+    }
+}
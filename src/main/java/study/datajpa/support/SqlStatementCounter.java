@@ -0,0 +1,147 @@
+package study.datajpa.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 스레드(HTTP 요청) 단위, 트랜잭션 단위로 실행된 SQL 수를 셈
+ * 같은 SQL이 파라미터만 바꿔서 threshold번 이상 나가면 N+1 의심으로 경고 로그
+ *
+ * 스레드 단위 집계는 reset() ~ remove() 사이에만 (요청은 SqlStatementCountFilter, executor 작업은 wrap())
+ * 테스트에서는 reset() 후 current()로 확인 (SqlStatementAssertions 참고)
+ */
+@Slf4j
+@Component
+public class SqlStatementCounter {
+
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+    private static final Object TRANSACTION_KEY = new Object();
+
+    private final int repeatThreshold;
+    private final AtomicLong suspectedNPlusOne = new AtomicLong();
+
+    public SqlStatementCounter(@Value("${datajpa.sql.repeat-threshold:5}") int repeatThreshold) {
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    /**
+     * 현재 스레드에서 reset() 이후 실행된 SQL (reset() 전이면 빈 값)
+     */
+    public static SqlStatementStats current() {
+        SqlStatementStats stats = CURRENT.get();
+        return stats != null ? stats : new SqlStatementStats();
+    }
+
+    /**
+     * 현재 스레드에서 SQL 세기 시작 (이전 값은 버림)
+     */
+    public static void reset() {
+        CURRENT.set(new SqlStatementStats());
+    }
+
+    /**
+     * 요청/작업이 끝나면 finally에서 호출
+     * 풀 스레드에 값이 남으면 다음 요청으로 넘어가고 스레드가 사는 동안 계속 쌓임
+     */
+    public static void remove() {
+        CURRENT.remove();
+    }
+
+    /**
+     * executor 작업 하나를 reset() ~ remove() 로 감쌈
+     */
+    public static Runnable wrap(Runnable task) {
+        return () -> {
+            reset();
+            try {
+                task.run();
+            } finally {
+                remove();
+            }
+        };
+    }
+
+    public void record(String sql) {
+        SqlStatementStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.record(sql);
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionStats().record(sql);
+        }
+    }
+
+    /**
+     * N+1 의심 건이 있으면 경고
+     * @param scope 로그에 남길 범위 (ex. "GET /members")
+     */
+    public void report(String scope, SqlStatementStats stats) {
+        Map<String, Integer> repeated = stats.getRepeated(repeatThreshold);
+        if (repeated.isEmpty()) {
+            log.debug("[{}] {} statements", scope, stats.getCount());
+            return;
+        }
+
+        suspectedNPlusOne.incrementAndGet();
+        repeated.forEach((sql, n) ->
+                log.warn("[{}] possible N+1: same statement executed {} times ({} statements total): {}",
+                        scope, n, stats.getCount(), sql));
+    }
+
+    /**
+     * 지금까지 N+1 의심으로 경고한 요청/트랜잭션 수
+     */
+    public long getSuspectedNPlusOneCount() {
+        return suspectedNPlusOne.get();
+    }
+
+    public int getRepeatThreshold() {
+        return repeatThreshold;
+    }
+
+    private SqlStatementStats transactionStats() {
+        SqlStatementStats stats = (SqlStatementStats) TransactionSynchronizationManager.getResource(TRANSACTION_KEY);
+        if (stats != null) {
+            return stats;
+        }
+
+        SqlStatementStats created = new SqlStatementStats();
+        String name = TransactionSynchronizationManager.getCurrentTransactionName();
+        TransactionSynchronizationManager.bindResource(TRANSACTION_KEY, created);
+        // 다른 동기화의 afterCompletion에서 나가는 SQL까지 세도록 가장 마지막에 실행
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                return Ordered.LOWEST_PRECEDENCE;
+            }
+
+            /**
+             * REQUIRES_NEW 등으로 트랜잭션이 보류되면 내부 트랜잭션이 바깥 값에 섞이지 않도록 풀어 둠
+             */
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TRANSACTION_KEY);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(TRANSACTION_KEY, created);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TRANSACTION_KEY);
+                report("tx " + name, created);
+            }
+        });
+        return created;
+    }
+}
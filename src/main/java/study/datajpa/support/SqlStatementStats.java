@@ -0,0 +1,46 @@
+package study.datajpa.support;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 실행된 SQL 수
+ * 파라미터 바인딩 전 SQL(? 포함) 기준으로 세기 때문에 파라미터만 다른 반복 쿼리(N+1)를 찾을 수 있음
+ */
+public class SqlStatementStats {
+
+    private int count;
+    private final Map<String, Integer> countBySql = new HashMap<>();
+
+    public void record(String sql) {
+        count++;
+        countBySql.merge(sql, 1, Integer::sum);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * threshold번 이상 반복된 SQL
+     */
+    public Map<String, Integer> getRepeated(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        countBySql.forEach((sql, n) -> {
+            if (n >= threshold) {
+                repeated.put(sql, n);
+            }
+        });
+        return repeated;
+    }
+
+    public Map<String, Integer> getCountBySql() {
+        return new LinkedHashMap<>(countBySql);
+    }
+
+    public void clear() {
+        count = 0;
+        countBySql.clear();
+    }
+}
@@ -0,0 +1,74 @@
+package study.datajpa.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * 시작이 끝나면 단계별 소요 시간과 오래 걸린 빈 목록을 로그로 남김
+ * BufferingApplicationStartup으로 띄운 경우에만 (DataJpaApplication.main)
+ * 단계는 중첩되므로 합이 전체 시작 시간보다 클 수 있음
+ */
+@Slf4j
+@Component
+public class StartupTimingReport implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final int TOP_BEANS = 15;
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        ApplicationStartup startup = event.getApplicationContext().getApplicationStartup();
+        if (!(startup instanceof BufferingApplicationStartup)) {
+            return;
+        }
+        StartupTimeline timeline = ((BufferingApplicationStartup) startup).getBufferedTimeline();
+        List<StartupTimeline.TimelineEvent> events = timeline.getEvents();
+
+        Map<String, Duration> byStep = new LinkedHashMap<>();
+        for (StartupTimeline.TimelineEvent timelineEvent : events) {
+            byStep.merge(timelineEvent.getStartupStep().getName(), timelineEvent.getDuration(), Duration::plus);
+        }
+
+        long totalMillis = events.stream()
+                .map(StartupTimeline.TimelineEvent::getEndTime)
+                .max(Comparator.naturalOrder())
+                .map(end -> Duration.between(timeline.getStartTime(), end).toMillis())
+                .orElse(0L);
+        StringBuilder report = new StringBuilder("startup timing (total ").append(totalMillis).append("ms)");
+        byStep.entrySet().stream()
+                .sorted(Map.Entry.<String, Duration>comparingByValue().reversed())
+                .forEach(step -> report.append("\n  ").append(step.getKey()).append(": ")
+                        .append(step.getValue().toMillis()).append("ms"));
+
+        report.append("\n  slowest beans:");
+        events.stream()
+                .filter(timelineEvent -> "spring.beans.instantiate".equals(timelineEvent.getStartupStep().getName()))
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(TOP_BEANS)
+                .forEach(timelineEvent -> report.append("\n    ").append(beanName(timelineEvent.getStartupStep()))
+                        .append(": ").append(timelineEvent.getDuration().toMillis()).append("ms"));
+
+        log.info(report.toString());
+    }
+
+    private static String beanName(StartupStep step) {
+        List<String> names = StreamSupport.stream(step.getTags().spliterator(), false)
+                .filter(tag -> "beanName".equals(tag.getKey()))
+                .map(StartupStep.Tag::getValue)
+                .collect(Collectors.toList());
+        return names.isEmpty() ? "?" : names.get(0);
+    }
+}
@@ -0,0 +1,23 @@
+package study.datajpa.support;
+
+import org.springframework.data.domain.AuditorAware;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * 감사 콜백마다 등록자를 새로 구하지 않고 트랜잭션당 한 번만 구함
+ */
+public class TransactionScopedAuditorAware<T> implements AuditorAware<T> {
+
+    private final TransactionScopedValue<T> auditor;
+
+    public TransactionScopedAuditorAware(Supplier<T> resolver) {
+        this.auditor = new TransactionScopedValue<>(resolver);
+    }
+
+    @Override
+    public Optional<T> getCurrentAuditor() {
+        return Optional.ofNullable(auditor.get());
+    }
+}
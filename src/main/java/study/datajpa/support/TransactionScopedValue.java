@@ -0,0 +1,74 @@
+package study.datajpa.support;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * 트랜잭션 동안 한 번만 구해서 재사용하는 값 (트랜잭션마다 따로, REQUIRES_NEW 내부 트랜잭션도 따로)
+ * 트랜잭션 밖에서는 매번 새로 구함
+ */
+public class TransactionScopedValue<T> {
+
+    private final Supplier<T> supplier;
+
+    public TransactionScopedValue(Supplier<T> supplier) {
+        this.supplier = supplier;
+    }
+
+    public T get() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return supplier.get();
+        }
+
+        Holder<T> holder = holder();
+        if (holder.value == null) {
+            holder.value = supplier.get();
+        }
+        return holder.value;
+    }
+
+    /**
+     * 다음 get()에서 새로 구하게 함 (트랜잭션 안에서만 의미 있음)
+     */
+    public void reset() {
+        @SuppressWarnings("unchecked")
+        Holder<T> holder = (Holder<T>) TransactionSynchronizationManager.getResource(this);
+        if (holder != null) {
+            holder.value = null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Holder<T> holder() {
+        Holder<T> holder = (Holder<T>) TransactionSynchronizationManager.getResource(this);
+        if (holder == null) {
+            holder = new Holder<>();
+            Holder<T> created = holder;
+            TransactionSynchronizationManager.bindResource(this, holder);
+            // REQUIRES_NEW 등으로 보류되는 동안 풀어 둬야 내부 트랜잭션이 자기 값을 따로 가짐
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void suspend() {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TransactionScopedValue.this);
+                }
+
+                @Override
+                public void resume() {
+                    TransactionSynchronizationManager.bindResource(TransactionScopedValue.this, created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TransactionScopedValue.this);
+                }
+            });
+        }
+        return holder;
+    }
+
+    private static class Holder<T> {
+        private T value;
+    }
+}
@@ -0,0 +1,39 @@
+package study.datajpa.support;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 1..n 중 k가 나올 확률이 1/k^skew 에 비례하는 분포 (skew가 클수록 앞쪽 몇 개에 몰림, 0이면 균등)
+ * 누적 확률을 미리 계산해두고 이진 탐색으로 뽑음
+ */
+public class ZipfDistribution {
+
+    private final double[] cumulative;
+
+    public ZipfDistribution(int n, double skew) {
+        if (n < 1) {
+            throw new IllegalArgumentException("n must be positive: " + n);
+        }
+        cumulative = new double[n];
+        double sum = 0;
+        for (int k = 1; k <= n; k++) {
+            sum += 1 / Math.pow(k, skew);
+            cumulative[k - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    /**
+     * @return 1..n
+     */
+    public int sample(Random random) {
+        int idx = Arrays.binarySearch(cumulative, random.nextDouble());
+        if (idx < 0) {
+            idx = -idx - 1;
+        }
+        return Math.min(idx, cumulative.length - 1) + 1;
+    }
+}
@@ -0,0 +1,84 @@
+package study.datajpa.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.tool.schema.spi.SchemaManagementException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.test.context.ActiveProfiles;
+import study.datajpa.DataJpaApplication;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.support.QueryPreValidator;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * fast-startup 프로필로 이미 스키마가 있는 DB에 띄움
+ * 테스트 컨텍스트 전에 기본 프로필(ddl-auto create)로 한 번 띄워서 스키마를 만들고 회원 하나를 넣어 둠
+ * 스키마를 다시 만들었으면 그 회원이 없어짐
+ */
+@ActiveProfiles("fast-startup")
+@SpringBootTest(properties = "spring.datasource.url=" + FastStartupProfileTest.URL)
+class FastStartupProfileTest {
+
+    static final String URL = "jdbc:h2:mem:faststartup;DB_CLOSE_DELAY=-1";
+
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired EntityManagerFactory emf;
+    @Autowired BeanFactory beanFactory;
+    @Autowired QueryPreValidator queryPreValidator;
+
+    @BeforeAll
+    static void createSchema() {
+        try (ConfigurableApplicationContext context = start(URL)) {
+            context.getBean(MemberRepository.class).save(new Member("fastStartupMarker", 10));
+        }
+    }
+
+    @Test
+    public void validateExistingSchemaInsteadOfCreating() {
+        assertEquals("validate", emf.getProperties().get(AvailableSettings.HBM2DDL_AUTO));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "select count(*) from member where username = 'fastStartupMarker'", Integer.class));
+    }
+
+    /**
+     * member 테이블만 있고 엔티티와 안 맞으면 건너뛰지 않고 시작 실패
+     */
+    @Test
+    public void failOnPartialSchema() {
+        String url = "jdbc:h2:mem:faststartup-partial;DB_CLOSE_DELAY=-1;INIT=CREATE TABLE IF NOT EXISTS MEMBER(MARKER VARCHAR(10))";
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> start(url, "fast-startup").close());
+        assertTrue(NestedExceptionUtils.getMostSpecificCause(e) instanceof SchemaManagementException, e::toString);
+    }
+
+    @Test
+    public void bootstrapInBackgroundAndValidateQueries() {
+        LocalContainerEntityManagerFactoryBean factoryBean =
+                beanFactory.getBean("&entityManagerFactory", LocalContainerEntityManagerFactoryBean.class);
+        assertNotNull(factoryBean.getBootstrapExecutor());
+        assertTrue(queryPreValidator.getValidatedCount() > 10);
+    }
+
+    /**
+     * application.yml보다 우선하도록 url은 커맨드라인 인자로 넘김
+     */
+    private static ConfigurableApplicationContext start(String url, String... profiles) {
+        return new SpringApplicationBuilder(DataJpaApplication.class)
+                .profiles(profiles)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + url);
+    }
+}
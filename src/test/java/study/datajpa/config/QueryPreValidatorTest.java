@@ -0,0 +1,58 @@
+package study.datajpa.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.support.QueryPreValidator;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "datajpa.startup.parallel-query-validation=true",
+        "spring.jpa.properties.hibernate.query.startup_check=false",
+        "spring.datasource.url=jdbc:h2:mem:prevalidate;DB_CLOSE_DELAY=-1"
+})
+class QueryPreValidatorTest {
+
+    @Autowired QueryPreValidator queryPreValidator;
+
+    /**
+     * 컨텍스트가 떴으면 모든 @NamedQuery, @Query가 검증을 통과한 것
+     */
+    @Test
+    public void validateAllQueriesOnStartup() {
+        assertTrue(queryPreValidator.getValidatedCount() > 10);
+    }
+
+    @Test
+    public void reportInvalidQuery() {
+        Map<String, String> queries = new LinkedHashMap<>();
+        queries.put("valid", "select m from Member m where m.username = :username");
+        queries.put("invalid", "select m from Member m where m.nickname = :nickname");
+
+        List<String> errors = queryPreValidator.validate(queries);
+
+        assertEquals(1, errors.size());
+        assertTrue(errors.get(0).startsWith("invalid: "));
+        assertTrue(queryPreValidator.validate(Collections.emptyMap()).isEmpty());
+    }
+
+    @Test
+    public void normalizeSpringDataSyntax() {
+        assertEquals("select m from Member m where m.username like :username",
+                QueryPreValidator.normalize("select m from #{#entityName} m where m.username like %:username%", "Member"));
+        assertEquals("select m from Member m where m.username like ?1",
+                QueryPreValidator.normalize("select m from Member m where m.username like ?1%", null));
+        assertNull(QueryPreValidator.normalize("select m from Member m where m.username = :#{#member.username}", "Member"));
+
+        Map<String, String> queries = new LinkedHashMap<>();
+        queries.put("normalized", QueryPreValidator.normalize(
+                "select m from #{#entityName} m where m.username like %:username%", "Member"));
+        assertTrue(queryPreValidator.validate(queries).isEmpty());
+    }
+}
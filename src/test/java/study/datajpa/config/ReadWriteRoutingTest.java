@@ -0,0 +1,183 @@
+package study.datajpa.config;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.support.ReplicationLagGuard;
+import study.datajpa.support.SqlStatementCounter;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 로컬에는 복제가 없으므로 primary / replica 모두 같은 H2 메모리 DB를 가리키고 (replica가 즉시 복제된 상태)
+ * 접속 계정으로 어느 풀을 탔는지 구분 (primary = SA, replica = REPLICA)
+ * REPLICA 계정은 primary 커넥션의 INIT으로 만듦 (스키마 생성이 primary로 먼저 접속함)
+ */
+@SpringBootTest(properties = {
+        "datajpa.routing.enabled=true",
+        "datajpa.routing.replica-lag=10s",
+        "spring.datasource.url=jdbc:h2:mem:routing;DB_CLOSE_DELAY=-1;INIT=CREATE USER IF NOT EXISTS REPLICA PASSWORD 'replica' ADMIN",
+        "datajpa.routing.replica.url=jdbc:h2:mem:routing;DB_CLOSE_DELAY=-1",
+        "datajpa.routing.replica.username=replica",
+        "datajpa.routing.replica.password=replica"
+})
+class ReadWriteRoutingTest {
+
+    @Autowired DataSource dataSource;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired MemberRepository memberRepository;
+    @Autowired StatementUsers statementUsers;
+
+    @BeforeEach
+    void resetGuard() {
+        ReplicationLagGuard.reset();
+    }
+
+    @Test
+    public void readOnlyFinderGoesToReplica() {
+        memberRepository.save(new Member("routingReplica", 10));
+        ReplicationLagGuard.reset();
+
+        //when 스프링 데이터 JPA 조회 메서드를 readOnly 트랜잭션에서 실행
+        SqlStatementCounter.reset();
+        try {
+            Routed routed = readOnly(() -> memberRepository.findListByUsername("routingReplica"));
+
+            //then 풀마다 p6spy로 감싸므로 SQL은 한 번만 집계
+            assertEquals("REPLICA", routed.user);
+            assertEquals(1, routed.members.size());
+            assertEquals(1, SqlStatementCounter.current().getCount());
+        } finally {
+            SqlStatementCounter.remove();
+        }
+    }
+
+    /**
+     * 바깥 트랜잭션 없이 호출해도 읽기 전용 힌트 메서드는 자기 readOnly 트랜잭션으로 replica에서 실행
+     */
+    @Test
+    public void hintedFinderWithoutTransactionGoesToReplica() {
+        memberRepository.save(new Member("routingHinted", 10));
+        ReplicationLagGuard.reset();
+        statementUsers.clear();
+
+        Member member = memberRepository.findReadOnlyByUsername("routingHinted");
+
+        assertNotNull(member);
+        assertEquals("REPLICA", statementUsers.userOf("from member"));
+    }
+
+    @Test
+    public void readWriteGoesToPrimary() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        String user = template.execute(status -> {
+            memberRepository.save(new Member("routingPrimary", 10));
+            memberRepository.flush();
+            return connectionUser();
+        });
+        assertEquals("SA", user);
+    }
+
+    @Test
+    public void readAfterWriteGoesToPrimary() {
+        //given 쓰기 커밋
+        memberRepository.save(new Member("routingReadAfterWrite", 10));
+
+        //when 복제 지연 시간 안의 같은 스레드 읽기는 primary
+        Routed routed = readOnly(() -> memberRepository.findListByUsername("routingReadAfterWrite"));
+
+        //then
+        assertEquals("SA", routed.user);
+        assertEquals(1, routed.members.size());
+
+        //when 지연 시간이 지나면 replica
+        ReplicationLagGuard.reset();
+        assertEquals("REPLICA", readOnly(() -> memberRepository.findListByUsername("routingReadAfterWrite")).user);
+    }
+
+    /**
+     * 같은 트랜잭션에서는 조회 메서드가 쓴 커넥션을 그대로 돌려받으므로 그 계정을 확인
+     */
+    private Routed readOnly(Supplier<List<Member>> finder) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template.execute(status -> {
+            List<Member> members = finder.get();
+            return new Routed(connectionUser(), members);
+        });
+    }
+
+    private String connectionUser() {
+        try {
+            return DataSourceUtils.getConnection(dataSource).getMetaData().getUserName();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 실행된 SQL마다 어느 계정(풀)의 커넥션이었는지 기록 (풀마다 p6spy로 감싸므로 실제 풀 커넥션)
+     */
+    @TestConfiguration
+    static class StatementUsersConfig {
+
+        @Bean
+        StatementUsers statementUsers() {
+            return new StatementUsers();
+        }
+    }
+
+    static class StatementUsers extends SimpleJdbcEventListener {
+
+        private final Map<String, String> userBySql = new ConcurrentHashMap<>();
+
+        @Override
+        public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+            try {
+                userBySql.put(statementInformation.getSql().toLowerCase(),
+                        statementInformation.getConnectionInformation().getConnection().getMetaData().getUserName());
+            } catch (SQLException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+
+        void clear() {
+            userBySql.clear();
+        }
+
+        String userOf(String sqlFragment) {
+            return userBySql.entrySet().stream()
+                    .filter(entry -> entry.getKey().contains(sqlFragment))
+                    .map(Map.Entry::getValue)
+                    .findFirst()
+                    .orElseThrow(() -> new AssertionError("'" + sqlFragment + "' 이 들어간 SQL이 없음: " + userBySql.keySet()));
+        }
+    }
+
+    private static class Routed {
+        private final String user;
+        private final List<Member> members;
+
+        private Routed(String user, List<Member> members) {
+            this.user = user;
+            this.members = members;
+        }
+    }
+}
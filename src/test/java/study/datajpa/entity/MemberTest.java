@@ -1,11 +1,16 @@
 package study.datajpa.entity;
 
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
@@ -25,6 +30,9 @@ class MemberTest {
     @Autowired
     MemberRepository memberRepository;
 
+    @Autowired
+    TeamRepository teamRepository;
+
 
     @Test
     public void testEntity(){
@@ -82,5 +90,83 @@ class MemberTest {
 
     }
 
+    /**
+     * 빌드 시 바이트코드 향상이 적용됐는지 (build.gradle hibernate.enhance)
+     */
+    @Test
+    public void entityEnhancedForDirtyTracking() {
+        assertTrue(SelfDirtinessTracker.class.isAssignableFrom(Member.class));
+        assertTrue(SelfDirtinessTracker.class.isAssignableFrom(Team.class));
+    }
+
+    /**
+     * 팀 변경 시 양쪽 팀의 members 컬렉션을 로딩하지 않음
+     */
+    @Test
+    @Rollback
+    public void changeTeamWithoutLoadingMembers() {
+        Team bigTeam = teamRepository.save(new Team("bigTeam"));
+        Team otherTeam = teamRepository.save(new Team("otherTeam"));
+        Member moving = memberRepository.save(new Member("movingMember", 10, bigTeam));
+        for (int i = 0; i < 100; i++) {
+            memberRepository.save(new Member("bigTeamMember" + i, 10, bigTeam));
+        }
+        em.flush();
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        long collectionLoads = statistics.getCollectionLoadCount();
+
+        Team from = teamRepository.findById(bigTeam.getId()).get();
+        Team to = teamRepository.findById(otherTeam.getId()).get();
+        Member member = memberRepository.findById(moving.getId()).get();
+
+        member.changeTeam(to);
+        em.flush();
+
+        assertFalse(Hibernate.isInitialized(from.getMembers()));
+        assertFalse(Hibernate.isInitialized(to.getMembers()));
+        assertEquals(collectionLoads, statistics.getCollectionLoadCount());
+
+        // EXTRA: size()도 로딩 없이 count 쿼리
+        assertEquals(100, from.getMembers().size());
+        assertEquals(1, to.getMembers().size());
+        assertEquals(collectionLoads, statistics.getCollectionLoadCount());
+
+        em.clear();
+        assertEquals(otherTeam.getId(), memberRepository.findById(moving.getId()).get().getTeam().getId());
+    }
+
+    /**
+     * 회원을 먼저 조회해서 team이 프록시인 경우에도 팀 변경 시 members 컬렉션을 로딩하지 않음
+     */
+    @Test
+    @Rollback
+    public void changeTeamFromProxyWithoutLoadingMembers() {
+        Team bigTeam = teamRepository.save(new Team("bigTeamProxy"));
+        Team otherTeam = teamRepository.save(new Team("otherTeamProxy"));
+        Member moving = memberRepository.save(new Member("movingProxyMember", 10, bigTeam));
+        for (int i = 0; i < 10; i++) {
+            memberRepository.save(new Member("bigTeamProxyMember" + i, 10, bigTeam));
+        }
+        em.flush();
+        em.clear();
 
-}
\ No newline at end of file
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        long collectionLoads = statistics.getCollectionLoadCount();
+
+        Member member = memberRepository.findById(moving.getId()).get();
+        Team from = member.getTeam();
+        assertFalse(Hibernate.isInitialized(from));
+
+        member.changeTeam(em.getReference(Team.class, otherTeam.getId()));
+        em.flush();
+
+        assertFalse(Hibernate.isInitialized(from.getMembers()));
+        assertFalse(Hibernate.isInitialized(member.getTeam().getMembers()));
+        assertEquals(collectionLoads, statistics.getCollectionLoadCount());
+
+        em.clear();
+        assertEquals(otherTeam.getId(), memberRepository.findById(moving.getId()).get().getTeam().getId());
+    }
+}
@@ -0,0 +1,93 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.BulkUpdateCheckpoint;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * chunk마다 별도 트랜잭션으로 커밋하므로 테스트 트랜잭션 없이 실행
+ * 다른 테스트가 남긴 회원도 같이 수정될 수 있으니 이 테스트가 넣은 회원만 id로 확인하고 지움
+ * 체크포인트도 chunk 트랜잭션에서 커밋되므로 같이 지움
+ */
+@SpringBootTest
+class MemberBulkUpdateTest {
+
+    private static final int AGE = 1_000_000;
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired EntityManager em;
+
+    private final List<Member> members = new ArrayList<>();
+    private final List<String> jobNames = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        try {
+            members.forEach(member -> memberRepository.deleteById(member.getId()));
+        } finally {
+            new TransactionTemplate(transactionManager).execute(status -> {
+                for (String jobName : jobNames) {
+                    BulkUpdateCheckpoint checkpoint = em.find(BulkUpdateCheckpoint.class, jobName);
+                    if (checkpoint != null) {
+                        em.remove(checkpoint);
+                    }
+                }
+                return null;
+            });
+        }
+    }
+
+    @Test
+    void bulkAgePlusInChunksResumesFromCheckpoint() {
+        //given
+        for (int i = 0; i < 5; i++) {
+            members.add(memberRepository.save(new Member("chunk" + i, AGE + i)));
+        }
+        String jobName = "agePlus-" + UUID.randomUUID();
+        jobNames.add(jobName);
+
+        //when 첫 chunk 커밋 후 실패
+        BulkUpdateException failure = assertThrows(BulkUpdateException.class, () ->
+                memberRepository.bulkAgePlusInChunks(jobName, AGE, 2, progress -> {
+                    throw new IllegalStateException("중간 실패");
+                }));
+        assertEquals(1, failure.getProgress().getChunks());
+
+        //when 같은 작업 이름으로 다시 실행하면 체크포인트부터 이어서 실행
+        List<BulkUpdateProgress> reported = new ArrayList<>();
+        BulkUpdateProgress result = memberRepository.bulkAgePlusInChunks(jobName, AGE, 2, reported::add);
+
+        //then 모두 정확히 한 번씩만 증가
+        assertAges(1);
+        assertTrue(result.isCompleted());
+        assertEquals(result.getChunks(), reported.size() + 1);
+        assertTrue(result.getUpdatedRows() >= members.size());
+
+        //when 끝난 작업을 다시 실행해도 더 수정하지 않음
+        BulkUpdateProgress again = memberRepository.bulkAgePlusInChunks(jobName, AGE, 2, reported::add);
+
+        //then
+        assertAges(1);
+        assertEquals(result.getUpdatedRows(), again.getUpdatedRows());
+    }
+
+    private void assertAges(int increment) {
+        for (int i = 0; i < members.size(); i++) {
+            Member member = memberRepository.findById(members.get(i).getId()).get();
+            assertEquals(AGE + i + increment, member.getAge());
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.support.SqlStatementCounter;
+
+import javax.persistence.EntityManager;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 자주 쓰는 조회가 인덱스를 타는지 EXPLAIN으로 확인
+ * 하이버네이트가 실제로 만든 SQL을 그대로 EXPLAIN (파라미터도 같이 바인딩)
+ * 픽스처는 테스트 트랜잭션과 함께 롤백
+ */
+@SpringBootTest
+@Transactional
+class MemberIndexTest {
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired MemberJpaRepository memberJpaRepository;
+    @Autowired TeamRepository teamRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired EntityManager em;
+
+    Team team;
+
+    @BeforeEach
+    void setUp() {
+        team = teamRepository.save(new Team("indexTeam"));
+        memberRepository.save(new Member("indexUser1", 31, team));
+        memberRepository.save(new Member("indexUser2", 32, team));
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void findByUsername() {
+        String plan = planOf(() -> memberRepository.findByUsername("indexUser1"),
+                "where member0_.username=?", "indexUser1");
+        assertUsesIndex(plan, "IDX_MEMBER_USERNAME");
+    }
+
+    @Test
+    public void findByUsernameAndAgeGreaterThan() {
+        String plan = planOf(() -> memberRepository.findByUsernameAndAgeGreaterThan("indexUser1", 30),
+                "where member0_.username=? and member0_.age>?", "indexUser1", 30);
+        assertUsesIndex(plan, "IDX_MEMBER_");
+    }
+
+    @Test
+    public void findByNames() {
+        String plan = planOf(() -> memberRepository.findByNames(Arrays.asList("indexUser1", "indexUser2")),
+                "where member0_.username in (? , ?)", "indexUser1", "indexUser2");
+        assertUsesIndex(plan, "IDX_MEMBER_USERNAME");
+    }
+
+    @Test
+    public void findByPage() {
+        String plan = planOf(() -> memberJpaRepository.findByPage(31, 0, 10),
+                "where member0_.age=? order by member0_.username desc limit ?", 31, 10);
+        assertUsesIndex(plan, "IDX_MEMBER_AGE_USERNAME");
+    }
+
+    @Test
+    public void totalCount() {
+        String plan = planOf(() -> memberJpaRepository.totalCount(31),
+                "select count(member0_.member_id)", 31);
+        assertUsesIndex(plan, "IDX_MEMBER_AGE_USERNAME");
+    }
+
+    @Test
+    public void teamMembers() {
+        Long teamId = team.getId();
+        String plan = planOf(() -> teamRepository.findById(teamId).get().getMembers().size(),
+                "from member where team_id =?", teamId);
+        assertUsesIndex(plan, "IDX_MEMBER_TEAM");
+    }
+
+    /**
+     * finder가 날린 SQL 중 sqlFragment가 들어간 문장 하나를 EXPLAIN
+     */
+    private String planOf(Runnable finder, String sqlFragment, Object... params) {
+        SqlStatementCounter.reset();
+        finder.run();
+
+        Set<String> executed = SqlStatementCounter.current().getCountBySql().keySet();
+        List<String> matched = executed.stream()
+                .filter(sql -> sql.toLowerCase().contains(sqlFragment))
+                .collect(Collectors.toList());
+        SqlStatementCounter.remove();
+        assertEquals(1, matched.size(), () -> "'" + sqlFragment + "' 이 들어간 SQL이 하나가 아님: " + executed);
+
+        return String.join("\n", jdbcTemplate.queryForList("explain " + matched.get(0), String.class, params));
+    }
+
+    private static void assertUsesIndex(String plan, String index) {
+        assertTrue(plan.toUpperCase().contains(index), plan);
+        assertFalse(plan.toUpperCase().contains("TABLESCAN"), plan);
+    }
+}
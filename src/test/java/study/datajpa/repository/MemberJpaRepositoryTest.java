@@ -3,8 +3,13 @@ package study.datajpa.repository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import study.datajpa.entity.Member;
 
 import javax.persistence.EntityManager;
@@ -20,6 +25,7 @@ class MemberJpaRepositoryTest {
     @Autowired MemberJpaRepository memberJpaRepository;
     @Autowired
     EntityManager em;
+    @Autowired PlatformTransactionManager transactionManager;
 
     @Test
     void testMember(){
@@ -142,4 +148,87 @@ class MemberJpaRepositoryTest {
 //        assertThat(resultCount).isEqualTo(3);
     }
 
-}
\ No newline at end of file
+    /**
+     * 캐시는 readOnly 트랜잭션에서만 채워지므로 클래스의 읽기/쓰기 트랜잭션 밖에서 확인
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void cachedTotalCount() throws Exception {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        Member first = readWrite.execute(status -> memberJpaRepository.save(new Member("count1", 733)));
+        Member second = null;
+        try {
+            long before = readOnly.execute(status -> memberJpaRepository.totalCount(733, CountMode.CACHED));
+
+            //when 저장이 커밋되면 캐시 무효화
+            second = readWrite.execute(status -> memberJpaRepository.save(new Member("count2", 733)));
+
+            //then
+            assertEquals(before + 1, (long) readOnly.execute(status -> memberJpaRepository.totalCount(733, CountMode.CACHED)));
+
+            //when 벌크 연산도 커밋되면 캐시 무효화 (733 -> 734)
+            readWrite.execute(status -> memberJpaRepository.bulkAgePlus(733));
+
+            //then
+            assertEquals(readOnly.execute(status -> memberJpaRepository.totalCount(733)),
+                    readOnly.execute(status -> memberJpaRepository.totalCount(733, CountMode.CACHED)));
+        } finally {
+            Member saved = second;
+            readWrite.execute(status -> {
+                memberJpaRepository.delete(memberJpaRepository.find(first.getId()));
+                if (saved != null) {
+                    memberJpaRepository.delete(memberJpaRepository.find(saved.getId()));
+                }
+                return null;
+            });
+        }
+    }
+
+    /**
+     * 테이블 추정치는 조건을 반영할 수 없으므로 age 조건이 있으면 거부
+     */
+    @Test
+    public void estimatedTotalCount() throws Exception {
+        assertTrue(memberJpaRepository.count(CountMode.ESTIMATED) >= 0);
+        assertThrows(InvalidDataAccessApiUsageException.class,
+                () -> memberJpaRepository.totalCount(32, CountMode.ESTIMATED));
+    }
+
+
+    /**
+     * 커밋 전에 다른 트랜잭션이 다시 캐시한 count가 커밋 후에도 남아 있으면 안 됨
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void cachedTotalCountEvictedAfterCommit() throws Exception {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        long before = readOnly.execute(status -> memberJpaRepository.totalCount(31, CountMode.CACHED));
+
+        Member member = readWrite.execute(status -> {
+            Member saved = memberJpaRepository.save(new Member("countAfterCommit", 31));
+            em.flush();
+            // 읽기/쓰기 트랜잭션에서 구한 값은 캐시 안 됨
+            assertEquals(before + 1, memberJpaRepository.totalCount(31, CountMode.CACHED));
+            // 커밋 전 다른 트랜잭션은 이전 값을 보고 다시 캐시함
+            assertEquals(before, (long) readOnly.execute(s -> memberJpaRepository.totalCount(31, CountMode.CACHED)));
+            return saved;
+        });
+
+        //then 커밋 후 무효화
+        assertEquals(before + 1, (long) readOnly.execute(status -> memberJpaRepository.totalCount(31, CountMode.CACHED)));
+
+        readWrite.execute(status -> {
+            memberJpaRepository.delete(memberJpaRepository.find(member.getId()));
+            return null;
+        });
+    }
+
+}
@@ -0,0 +1,136 @@
+package study.datajpa.repository;
+
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactoryBean;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class MemberReadRepositoryTest {
+
+    @Autowired MemberReadRepository memberReadRepository;
+    @Autowired MemberRepository memberRepository;
+    @Autowired EntityManager em;
+    @Autowired BeanFactory beanFactory;
+
+    /**
+     * ReadOnlyRepository를 상속한 리포지토리만 ReadOnlyRepositoryFactoryBean으로 만들어짐 (RepositoryConfig)
+     */
+    @Test
+    public void factoryBeanOnlyForReadOnlyRepositories() {
+        assertEquals(ReadOnlyRepositoryFactoryBean.class, beanFactory.getBean("&memberReadRepository").getClass());
+        assertEquals(JpaRepositoryFactoryBean.class, beanFactory.getBean("&memberRepository").getClass());
+        assertEquals(JpaRepositoryFactoryBean.class, beanFactory.getBean("&teamRepository").getClass());
+    }
+
+    /**
+     * 쓰기 트랜잭션 안이어도 새로 조회한 엔티티는 읽기 전용 (스냅샷 없음, 수정해도 반영 안 됨)
+     */
+    @Test
+    public void readOnlyInsideWriteTransaction() {
+        Member saved = memberRepository.save(new Member("readOnlyUser", 10));
+        em.flush();
+        em.clear();
+
+        List<Member> result = memberReadRepository.findByUsernameIn(Collections.singletonList("readOnlyUser"));
+        Member member = findById(result, saved.getId());
+
+        Session session = em.unwrap(Session.class);
+        assertTrue(session.isReadOnly(member));
+        // 세션 설정은 그대로
+        assertFalse(session.isDefaultReadOnly());
+        assertEquals(FlushMode.AUTO, session.getHibernateFlushMode());
+
+        member.setAge(99);
+        em.flush();
+
+        assertEquals(10, ageOf(saved.getId()));
+    }
+
+    /**
+     * 힌트를 붙일 수 없는 findById(em.find)도 읽기 전용
+     */
+    @Test
+    public void findByIdReadOnlyInsideWriteTransaction() {
+        Member saved = memberRepository.save(new Member("readOnlyFindById", 10));
+        em.flush();
+        em.clear();
+
+        Member member = memberReadRepository.findById(saved.getId()).get();
+
+        Session session = em.unwrap(Session.class);
+        assertTrue(session.isReadOnly(member));
+        assertFalse(session.isDefaultReadOnly());
+
+        member.setAge(99);
+        em.flush();
+
+        assertEquals(10, ageOf(saved.getId()));
+    }
+
+    /**
+     * 바깥 쓰기 트랜잭션에서 수정한 엔티티는 조회 전에 flush되고, 읽기 전용으로 바뀌지 않음 (변경 유실 없음)
+     */
+    @Test
+    public void pendingChangesFlushedAndKept() {
+        Member saved = memberRepository.save(new Member("readOnlyPending", 10));
+        em.flush();
+        em.clear();
+
+        Member managed = memberRepository.findById(saved.getId()).get();
+        managed.setAge(20);
+
+        List<Member> result = memberReadRepository.findByUsernameIn(Collections.singletonList("readOnlyPending"));
+        assertSame(managed, findById(result, saved.getId()));
+        assertEquals(20, ageOf(saved.getId()));
+
+        Session session = em.unwrap(Session.class);
+        assertFalse(session.isReadOnly(managed));
+
+        managed.setAge(30);
+        memberReadRepository.findMemberFetchJoin();
+        em.flush();
+
+        assertEquals(30, ageOf(saved.getId()));
+    }
+
+    @Test
+    public void baseMethods() {
+        Member saved = memberRepository.save(new Member("readOnlyBase", 10));
+        em.flush();
+
+        assertTrue(memberReadRepository.findById(saved.getId()).isPresent());
+        assertEquals(1, memberReadRepository.findAll().stream()
+                .filter(m -> m.getId().equals(saved.getId()))
+                .count());
+        assertEquals(memberRepository.count(), memberReadRepository.count());
+    }
+
+    private Member findById(List<Member> members, Long id) {
+        return members.stream()
+                .filter(m -> m.getId().equals(id))
+                .findFirst()
+                .get();
+    }
+
+    /**
+     * 영속성 컨텍스트를 거치지 않고 DB 값 확인
+     */
+    private int ageOf(Long id) {
+        return em.createQuery("select m.age from Member m where m.id = :id", Integer.class)
+                .setParameter("id", id)
+                .getSingleResult();
+    }
+}
@@ -1,26 +1,47 @@
 package study.datajpa.repository;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberSearchCondition;
 import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
+import study.datajpa.support.RepositoryExecutor;
+import study.datajpa.support.RepositoryMethodStats;
+import study.datajpa.support.RepositoryMetrics;
+import study.datajpa.support.SqlStatementCounter;
 
 import javax.persistence.EntityManager;
 import javax.sql.DataSource;
 import java.sql.Connection;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static study.datajpa.support.SqlStatementAssertions.assertStatementCount;
+import static study.datajpa.support.SqlStatementAssertions.assertStatementCountAtMost;
 
 @SpringBootTest
 @Transactional
@@ -35,6 +56,18 @@ class MemberRepositoryTest {
     @Autowired
     MemberQueryRepository memberQueryRepository;
 
+    @Autowired
+    RepositoryExecutor repositoryExecutor;
+
+    @Autowired
+    RepositoryMetrics repositoryMetrics;
+
+    @Autowired
+    MemberSearchQueryCache searchQueryCache;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
     @Test
     void testMember(){
         System.out.println("memberRepository = " + memberRepository.getClass());
@@ -162,6 +195,28 @@ class MemberRepositoryTest {
         }
     }
 
+    @Test
+    public void findMemberDtoPage(){
+        //given
+        Team team = teamRepository.save(new Team("dtoTeam"));
+        Member withTeam = memberRepository.save(new Member("dto1", 10, team));
+        Member withoutTeam = memberRepository.save(new Member("dto2", 10));
+        em.flush();
+        em.clear();
+
+        //when
+        Page<MemberDto> page = memberRepository.findMemberDto(PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "id")));
+
+        //then 팀이 없는 회원도 나옴 (left join)
+        List<MemberDto> content = page.getContent();
+        assertEquals(2, content.size());
+        assertEquals(withoutTeam.getId(), content.get(0).getId());
+        assertNull(content.get(0).getTeamName());
+        assertEquals(withTeam.getId(), content.get(1).getId());
+        assertEquals("dtoTeam", content.get(1).getTeamName());
+        assertTrue(page.getTotalElements() >= 2);
+    }
+
     @Test
     public void findByNames(){
 
@@ -178,6 +233,52 @@ class MemberRepositoryTest {
         }
     }
 
+    /**
+     * chunk-size(512) 넘으면 나눠서 조회, 중복 이름은 한 번만
+     */
+    @Test
+    public void findByNamesInChunks() {
+        memberRepository.save(new Member("chunkUser1", 10));
+        memberRepository.save(new Member("chunkUser700", 10));
+        em.flush();
+
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            names.add("chunkUser" + i);
+        }
+        names.add("chunkUser1");
+
+        SqlStatementCounter.reset();
+        try {
+            List<Member> result = memberRepository.findByNames(names);
+
+            assertEquals(2, result.size());
+            assertEquals(2, SqlStatementCounter.current().getCount());
+        } finally {
+            SqlStatementCounter.remove();
+        }
+    }
+
+    /**
+     * temp-table-threshold(10000) 이상이면 임시 테이블 조인
+     */
+    @Test
+    public void findByNamesWithTempTable() {
+        memberRepository.save(new Member("tempTableUser3", 10));
+        memberRepository.save(new Member("tempTableUser9999", 10));
+        em.flush();
+
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            names.add("tempTableUser" + i);
+        }
+
+        List<Member> result = memberRepository.findByNames(names);
+
+        assertEquals(2, result.size());
+        assertEquals(2, memberRepository.findByNames(names).size());
+    }
+
     @Test
     public void returnType(){
         Member m1 = new Member("AAA", 10);
@@ -249,6 +350,47 @@ class MemberRepositoryTest {
 //        assertThat(page.hasNext()).isTrue();
     }
 
+    /**
+     * 키셋 페이징
+     * 커서를 따라가면서 전체를 읽으면 중복/누락 없이 (username desc, id desc) 순서여야 함
+     */
+    @Test
+    public void keysetPaging() throws Exception {
+        //given
+        memberRepository.save(new Member("keyset1", 10));
+        memberRepository.save(new Member("keyset2", 10));
+        memberRepository.save(new Member("keyset2", 20));
+        memberRepository.save(new Member("keyset3", 10));
+        memberRepository.save(new Member("keyset4", 10));
+        em.flush();
+        em.clear();
+
+        PageRequest pageRequest = PageRequest.of(0, 2);
+
+        //when
+        List<Member> visited = new ArrayList<>();
+        Slice<Member> slice = memberRepository.findFirstKeysetPage(pageRequest);
+        visited.addAll(slice.getContent());
+        while (slice.hasNext()) {
+            Member last = slice.getContent().get(slice.getContent().size() - 1);
+            slice = memberRepository.findKeysetPageAfter(last.getUsername(), last.getId(), pageRequest);
+            visited.addAll(slice.getContent());
+        }
+
+        //then
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < visited.size(); i++) {
+            Member member = visited.get(i);
+            assertTrue(ids.add(member.getId()));
+            if (i > 0) {
+                Member prev = visited.get(i - 1);
+                int cmp = prev.getUsername().compareTo(member.getUsername());
+                assertTrue(cmp > 0 || (cmp == 0 && prev.getId() > member.getId()));
+            }
+        }
+        assertTrue(ids.size() >= 5);
+    }
+
     @Test
     public void bulkUpdate() throws Exception {
         //given
@@ -300,6 +442,70 @@ class MemberRepositoryTest {
         //then
     }
 
+    @Test
+    public void fetchJoinStatementCount() throws Exception {
+        //given
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        teamRepository.save(teamA);
+        teamRepository.save(teamB);
+        memberRepository.save(new Member("member1", 10, teamA));
+        memberRepository.save(new Member("member2", 10, teamB));
+
+        em.flush();
+        em.clear();
+
+        //when 페치 조인이면 팀까지 쿼리 한 번
+        SqlStatementCounter.reset();
+        try {
+            List<Member> members = memberRepository.findMemberFetchJoin();
+            for (Member member : members) {
+                if (member.getTeam() != null) {
+                    member.getTeam().getName();
+                }
+            }
+
+            //then
+            assertStatementCount(1);
+        } finally {
+            SqlStatementCounter.remove();
+        }
+    }
+
+    /**
+     * 회원 100명(팀 20개) 한 페이지 -> 페이지 조회 + count + 팀 IN 조회 한 번
+     * 배치 페치가 없으면 팀마다 한 번씩 21번 이상
+     */
+    @Test
+    public void batchFetchTeams() throws Exception {
+        //given
+        List<Team> teams = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            teams.add(teamRepository.save(new Team("batchTeam" + i)));
+        }
+        for (int i = 0; i < 100; i++) {
+            memberRepository.save(new Member("batchMember" + i, 10, teams.get(i % teams.size())));
+        }
+
+        em.flush();
+        em.clear();
+
+        //when 가장 최근에 저장한 100명
+        SqlStatementCounter.reset();
+        try {
+            Page<Member> page = memberRepository.findAll(PageRequest.of(0, 100, Sort.by(Sort.Direction.DESC, "id")));
+            for (Member member : page) {
+                member.getTeam().getName();
+            }
+
+            //then
+            assertEquals(100, page.getContent().size());
+            assertStatementCountAtMost(3);
+        } finally {
+            SqlStatementCounter.remove();
+        }
+    }
+
     @Test
     void queryHint(){
         //given
@@ -319,6 +525,40 @@ class MemberRepositoryTest {
 
     }
 
+    /**
+     * 쿼리 캐시는 member 테이블을 바꾼 트랜잭션이 커밋되기 전까지는 쓰이지 않으므로 테스트 트랜잭션 밖에서 확인
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void queryCacheEvictedByBulkUpdate(){
+        //given
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        Member member = memberRepository.save(new Member("cached1", 500));
+        // 커밋된 데이터라 검증이 실패해도 지움
+        try {
+            assertEquals(500, memberRepository.findListByUsername("cached1").get(0).getAge());
+
+            //when 두 번째 조회는 쿼리 캐시에서 id 목록, 2차 캐시에서 엔티티를 가져옴
+            long queryHits = statistics.getQueryCacheHitCount();
+            long entityHits = statistics.getSecondLevelCacheHitCount();
+            assertEquals(500, memberRepository.findListByUsername("cached1").get(0).getAge());
+
+            //then
+            assertEquals(queryHits + 1, statistics.getQueryCacheHitCount());
+            assertEquals(entityHits + 1, statistics.getSecondLevelCacheHitCount());
+
+            //when 벌크 수정은 영속성 컨텍스트를 거치지 않지만 쿼리 캐시는 무효화 되어야 함
+            new TransactionTemplate(transactionManager).execute(status -> memberRepository.bulkAgePlus(500));
+            long queryMisses = statistics.getQueryCacheMissCount();
+
+            //then
+            assertEquals(501, memberRepository.findListByUsername("cached1").get(0).getAge());
+            assertEquals(queryMisses + 1, statistics.getQueryCacheMissCount());
+        } finally {
+            memberRepository.deleteById(member.getId());
+        }
+    }
+
     @Test
     void lock(){
         //given
@@ -336,6 +576,116 @@ class MemberRepositoryTest {
 
     }
 
+    @Test
+    void forEachMember(){
+        //given
+        Team team = new Team("exportTeam");
+        teamRepository.save(team);
+        Member member1 = memberRepository.save(new Member("export1", 10, team));
+        Member member2 = memberRepository.save(new Member("export2", 20, team));
+        Member member3 = memberRepository.save(new Member("export3", 30));
+        em.flush();
+        em.clear();
+
+        //when 2건마다 영속성 컨텍스트를 비우면서 순회
+        Map<Long, String> teamNames = new HashMap<>();
+        long count = memberRepository.forEachMember(2, 2, member ->
+                teamNames.put(member.getId(), member.getTeam() == null ? null : member.getTeam().getName()));
+
+        //then
+        assertEquals(count, teamNames.size());
+        assertEquals("exportTeam", teamNames.get(member1.getId()));
+        assertEquals("exportTeam", teamNames.get(member2.getId()));
+        assertTrue(teamNames.containsKey(member3.getId()));
+        assertNull(teamNames.get(member3.getId()));
+    }
+
+    /**
+     * 마지막 페이지라 count를 생략하는 경우에도 ESTIMATED는 거부
+     */
+    @Test
+    void findPageByAgeRejectsEstimatedCount(){
+        assertThrows(InvalidDataAccessApiUsageException.class,
+                () -> memberRepository.findPageByAge(10, PageRequest.of(0, 10), CountMode.ESTIMATED));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void forEachMemberWithInvalidClearInterval(){
+        assertThrows(InvalidDataAccessApiUsageException.class,
+                () -> memberRepository.forEachMember(100, 0, member -> { }));
+    }
+
+    /**
+     * 비동기 메서드는 다른 스레드에서 실행되므로 테스트 트랜잭션 밖에서 확인
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void asyncQuery() throws Exception {
+        long started = repositoryExecutor.getStartedCount();
+
+        CompletableFuture<Long> count = memberRepository.countAsync();
+        CompletableFuture<List<MemberDto>> content = memberRepository.findMemberDtoAsync(PageRequest.of(0, 3));
+
+        assertEquals(memberRepository.count(), count.get(5, TimeUnit.SECONDS));
+        assertTrue(content.get(5, TimeUnit.SECONDS).size() <= 3);
+        assertEquals(started + 2, repositoryExecutor.getStartedCount());
+    }
+
+    @Test
+    void repositoryMetrics() {
+        memberRepository.save(new Member("metricsUser", 10));
+        memberRepository.findByUsernameAndAgeGreaterThan("metricsUser", 5);
+
+        RepositoryMethodStats stats = repositoryMetrics.getAll().stream()
+                .filter(s -> s.getMethod().equals("MemberRepository.findByUsernameAndAgeGreaterThan(String, int)"))
+                .findFirst()
+                .orElseThrow(IllegalStateException::new);
+
+        assertTrue(stats.getLatency().getCount() >= 1);
+        assertTrue(stats.getRows() >= 1);
+        assertTrue(stats.getLatency().percentileNanos(99) <= stats.getLatency().getMaxNanos());
+    }
+
+    @Test
+    public void search() {
+        Team team = teamRepository.save(new Team("searchTeam"));
+        memberRepository.save(new Member("search_A1", 21, team));
+        memberRepository.save(new Member("search_A2", 25, team));
+        memberRepository.save(new Member("searchXA3", 25, team));
+        memberRepository.save(new Member("search_B1", 30));
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsernamePrefix("search_A"); // '_'는 와일드카드가 아니라 문자 그대로
+        condition.setAgeGoe(22);
+        condition.setTeamName("searchTeam");
+        PageRequest pageRequest = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "age", "username"));
+
+        long missesBefore = searchQueryCache.getMissCount();
+        Page<MemberDto> page = memberRepository.search(condition, pageRequest);
+
+        assertEquals(1, page.getTotalElements());
+        assertEquals("search_A2", page.getContent().get(0).getUsername());
+        assertEquals("searchTeam", page.getContent().get(0).getTeamName());
+
+        // 같은 모양(값만 다름)이면 JPQL 재사용
+        condition.setAgeGoe(20);
+        long hitsBefore = searchQueryCache.getHitCount();
+        assertEquals(2, memberRepository.search(condition, pageRequest).getTotalElements());
+        assertEquals(hitsBefore + 1, searchQueryCache.getHitCount());
+        assertTrue(searchQueryCache.getMissCount() <= missesBefore + 1);
+    }
+
+    /**
+     * 예외가 나면 참여 중인 트랜잭션이 rollback-only가 되므로 테스트 트랜잭션 밖에서 확인
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void searchWithUnknownSort() {
+        assertThrows(InvalidDataAccessApiUsageException.class, () -> memberRepository.search(
+                new MemberSearchCondition(), PageRequest.of(0, 10, Sort.by("createdBy"))));
+    }
+
     @Test
     void callCustom(){
         //given
@@ -0,0 +1,148 @@
+package study.datajpa.support;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 트랜잭션 경계를 직접 다루므로 테스트 트랜잭션 없이 실행
+ * 시간은 ManualClock으로 직접 진행 (sleep, 실제 시계 해상도에 의존하지 않음)
+ */
+@SpringBootTest
+class AuditClockTest {
+
+    @Autowired EntityManager em;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    ManualClock clock = new ManualClock();
+
+    @BeforeEach
+    void useManualClock() {
+        AuditClock.useClock(clock, clock::nanos);
+    }
+
+    @AfterEach
+    void restoreClock() {
+        AuditClock.useClock(null, null);
+    }
+
+    @Test
+    public void sameTimeWithinMaxAge() {
+        new TransactionTemplate(transactionManager).execute(status -> {
+            Team teamA = persist("clockA");
+            clock.advance(AuditClock.MAX_AGE_NANOS);
+            Team teamB = persist("clockB");
+
+            assertEquals(teamA.getCreatedDate(), teamB.getCreatedDate());
+            status.setRollbackOnly();
+            return null;
+        });
+    }
+
+    /**
+     * flush 없이 오래 걸리는 트랜잭션에서도 처음 시각을 계속 쓰지 않음
+     */
+    @Test
+    public void newTimeAfterMaxAge() {
+        new TransactionTemplate(transactionManager).execute(status -> {
+            Team teamA = persist("clockA");
+            clock.advance(AuditClock.MAX_AGE_NANOS + 1);
+            Team teamB = persist("clockB");
+
+            assertTrue(teamB.getCreatedDate().isAfter(teamA.getCreatedDate()));
+            status.setRollbackOnly();
+            return null;
+        });
+    }
+
+    @Test
+    public void newTimeAfterFlush() {
+        new TransactionTemplate(transactionManager).execute(status -> {
+            Team teamA = persist("clockA");
+            em.flush();
+            clock.advance(TimeUnit.MILLISECONDS.toNanos(1));
+            Team teamB = persist("clockB");
+
+            assertTrue(teamB.getCreatedDate().isAfter(teamA.getCreatedDate()));
+            status.setRollbackOnly();
+            return null;
+        });
+    }
+
+    /**
+     * REQUIRES_NEW 트랜잭션은 자기 시각을 쓰고, 끝난 뒤 바깥 트랜잭션은 원래 시각을 이어 씀
+     */
+    @Test
+    public void separateTimeInRequiresNew() {
+        TransactionTemplate inner = new TransactionTemplate(transactionManager);
+        inner.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        new TransactionTemplate(transactionManager).execute(status -> {
+            Team outerA = persist("clockOuterA");
+            clock.advance(TimeUnit.MILLISECONDS.toNanos(1));
+            Team innerTeam = inner.execute(s -> {
+                Team team = persist("clockInner");
+                s.setRollbackOnly();
+                return team;
+            });
+            Team outerB = persist("clockOuterB");
+
+            assertTrue(innerTeam.getCreatedDate().isAfter(outerA.getCreatedDate()));
+            assertEquals(outerA.getCreatedDate(), outerB.getCreatedDate());
+            status.setRollbackOnly();
+            return null;
+        });
+    }
+
+    private Team persist(String name) {
+        Team team = new Team(name);
+        em.persist(team);
+        return team;
+    }
+
+    /**
+     * advance()로만 움직이는 시계, 벽시계와 nanoTime이 같이 움직임
+     */
+    static class ManualClock extends Clock {
+
+        private final Instant start = Instant.parse("2021-01-01T00:00:00Z");
+        private volatile long nanos;
+
+        void advance(long nanos) {
+            this.nanos += nanos;
+        }
+
+        long nanos() {
+            return nanos;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.systemDefault();
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return start.plusNanos(nanos);
+        }
+    }
+}
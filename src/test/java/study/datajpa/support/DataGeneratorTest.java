@@ -0,0 +1,66 @@
+package study.datajpa.support;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JdbcTemplate도 테스트 트랜잭션에 참여하므로 생성한 데이터는 롤백됨
+ */
+@SpringBootTest
+@Transactional
+class DataGeneratorTest {
+
+    @Autowired DataGenerator dataGenerator;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired MemberRepository memberRepository;
+
+    @Test
+    public void generateSkewedData() {
+        Long maxTeamId = jdbcTemplate.queryForObject("select coalesce(max(team_id), 0) from team", Long.class);
+        Long maxMemberId = jdbcTemplate.queryForObject("select coalesce(max(member_id), 0) from member", Long.class);
+
+        dataGenerator.generate(10, 2000, 10, 1.1, 100, 1.0, 0, 1L);
+
+        Long generatedMembers = jdbcTemplate.queryForObject(
+                "select count(*) from member where member_id > ?", Long.class, maxMemberId);
+        assertEquals(2000L, generatedMembers);
+
+        // Zipf: 첫 번째 팀이 마지막 팀보다 훨씬 큼
+        Long firstTeamId = jdbcTemplate.queryForObject(
+                "select min(team_id) from team where team_id > ?", Long.class, maxTeamId);
+        Long firstTeamSize = jdbcTemplate.queryForObject(
+                "select count(*) from member where team_id = ?", Long.class, firstTeamId);
+        Long lastTeamSize = jdbcTemplate.queryForObject(
+                "select count(*) from member where team_id = ?", Long.class, firstTeamId + 9);
+        assertTrue(firstTeamSize > lastTeamSize * 3);
+
+        // 생성 후에도 JPA가 발급하는 id와 겹치지 않음
+        // (이미 받아둔 시퀀스 블록의 id가 먼저 나올 수 있으므로 블록을 넘길 만큼 저장)
+        Long generatedMin = jdbcTemplate.queryForObject(
+                "select min(member_id) from member where member_id > ?", Long.class, maxMemberId);
+        Long generatedMax = jdbcTemplate.queryForObject("select max(member_id) from member", Long.class);
+        for (int i = 0; i < 60; i++) {
+            Member saved = memberRepository.save(new Member("afterGenerate" + i, 10));
+            assertTrue(saved.getId() < generatedMin || saved.getId() > generatedMax);
+        }
+        memberRepository.flush();
+    }
+
+    @Test
+    public void itemIdsDoNotCollideOnRerun() {
+        Long itemsBefore = jdbcTemplate.queryForObject("select count(*) from item", Long.class);
+
+        // 같은 seed로 두 번 실행
+        dataGenerator.generate(0, 0, 10, 1.1, 1, 1.0, 0, 1L);
+        dataGenerator.generate(0, 0, 10, 1.1, 1, 1.0, 0, 1L);
+
+        assertEquals(itemsBefore + 20, jdbcTemplate.queryForObject("select count(*) from item", Long.class));
+    }
+}
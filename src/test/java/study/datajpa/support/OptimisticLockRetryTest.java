@@ -0,0 +1,67 @@
+package study.datajpa.support;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 시도마다 커밋/롤백되어야 하므로 테스트 트랜잭션 없이 실행
+ */
+@SpringBootTest
+class OptimisticLockRetryTest {
+
+    private static final int AGE = 2_000_000;
+
+    @Autowired OptimisticLockRetry optimisticLockRetry;
+    @Autowired MemberRepository memberRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    /**
+     * 읽은 뒤 다른 트랜잭션의 벌크 수정이 먼저 커밋되면 (versioned라 @Version 증가)
+     * 커밋 시 ObjectOptimisticLockingFailureException -> 새 트랜잭션에서 다시 읽고 수정
+     */
+    @Test
+    public void retryAfterConcurrentBulkUpdate() {
+        //given
+        Member saved = memberRepository.save(new Member("retryMember", AGE));
+        TransactionTemplate concurrent = new TransactionTemplate(transactionManager);
+        concurrent.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AtomicInteger attempts = new AtomicInteger();
+
+        //when
+        int age = optimisticLockRetry.execute(() -> {
+            Member member = memberRepository.findById(saved.getId()).get();
+            if (attempts.incrementAndGet() == 1) {
+                concurrent.execute(status -> memberRepository.bulkAgePlus(AGE));
+            }
+            member.setAge(member.getAge() + 10);
+            return member.getAge();
+        });
+
+        //then 벌크 수정(+1)이 덮어써지지 않음
+        assertEquals(2, attempts.get());
+        assertEquals(AGE + 11, age);
+        assertEquals(AGE + 11, memberRepository.findById(saved.getId()).get().getAge());
+
+        //when 재시도 없이 한 번만 실행하면 충돌이 그대로 드러남
+        assertThrows(ObjectOptimisticLockingFailureException.class, () ->
+                new TransactionTemplate(transactionManager).execute(status -> {
+                    Member member = memberRepository.findById(saved.getId()).get();
+                    concurrent.execute(s -> memberRepository.bulkAgePlus(AGE));
+                    member.setAge(member.getAge() + 10);
+                    return null;
+                }));
+
+        memberRepository.deleteById(saved.getId());
+    }
+}
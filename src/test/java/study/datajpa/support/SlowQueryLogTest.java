@@ -0,0 +1,45 @@
+package study.datajpa.support;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * threshold 0 으로 모든 SQL을 느린 쿼리로 취급, 전부 EXPLAIN
+ * 설정이 달라 컨텍스트를 새로 띄우므로 공유 DB 스키마를 다시 만들지 않도록 별도 메모리 DB 사용
+ */
+@SpringBootTest(properties = {
+        "datajpa.slow-query.threshold=0ms",
+        "datajpa.slow-query.explain-sample-rate=1.0",
+        "spring.datasource.url=jdbc:h2:mem:slowquery;DB_CLOSE_DELAY=-1"
+})
+class SlowQueryLogTest {
+
+    @Autowired SlowQueryLog slowQueryLog;
+    @Autowired MemberRepository memberRepository;
+
+    @Test
+    public void recordSlowQueryWithPlan() throws Exception {
+        memberRepository.save(new Member("slowQueryUser", 10));
+        slowQueryLog.clear();
+
+        memberRepository.findByUsernameAndAgeGreaterThan("slowQueryUser", 5);
+
+        SlowQuery query = slowQueryLog.getRecent().stream()
+                .filter(q -> q.getSqlWithValues().contains("'slowQueryUser'"))
+                .findFirst()
+                .orElseThrow(IllegalStateException::new);
+        assertEquals("MemberRepository.findByUsernameAndAgeGreaterThan(String, int)", query.getRepositoryMethod());
+
+        // EXPLAIN은 별도 스레드에서 채워짐
+        for (int i = 0; i < 50 && query.getPlan() == null; i++) {
+            Thread.sleep(100);
+        }
+        assertNotNull(query.getPlan());
+        assertTrue(query.getPlan().toLowerCase().contains("member"));
+    }
+}
@@ -0,0 +1,25 @@
+package study.datajpa.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 테스트에서 실행된 SQL 수 검증
+ * 검증할 코드 실행 전에 SqlStatementCounter.reset() 호출
+ */
+public final class SqlStatementAssertions {
+
+    private SqlStatementAssertions() {
+    }
+
+    public static void assertStatementCount(int expected) {
+        SqlStatementStats stats = SqlStatementCounter.current();
+        assertEquals(expected, stats.getCount(), () -> "executed statements: " + stats.getCountBySql());
+    }
+
+    public static void assertStatementCountAtMost(int max) {
+        SqlStatementStats stats = SqlStatementCounter.current();
+        assertTrue(stats.getCount() <= max,
+                () -> "expected at most " + max + " statements but was " + stats.getCount() + ": " + stats.getCountBySql());
+    }
+}
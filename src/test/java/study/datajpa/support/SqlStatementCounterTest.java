@@ -0,0 +1,65 @@
+package study.datajpa.support;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.repository.MemberRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class SqlStatementCounterTest {
+
+    @Autowired SqlStatementCounter counter;
+    @Autowired MemberRepository memberRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    /**
+     * REQUIRES_NEW 트랜잭션의 SQL은 바깥 트랜잭션과 따로 세고, 끝나는 시점에 따로 리포트
+     */
+    @Test
+    public void countRequiresNewSeparately() {
+        TransactionTemplate outer = new TransactionTemplate(transactionManager);
+        TransactionTemplate inner = new TransactionTemplate(transactionManager);
+        inner.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        long before = counter.getSuspectedNPlusOneCount();
+        outer.execute(status -> {
+            memberRepository.count();
+
+            inner.execute(s -> {
+                for (int i = 0; i < counter.getRepeatThreshold(); i++) {
+                    memberRepository.findByUsernameAndAgeGreaterThan("nPlusOne", i);
+                }
+                return null;
+            });
+
+            //then 내부 트랜잭션이 끝나자마자 리포트
+            assertEquals(before + 1, counter.getSuspectedNPlusOneCount());
+
+            // 바깥 트랜잭션은 내부 SQL을 세지 않으므로 반복이 안 쌓임
+            for (int i = 0; i < counter.getRepeatThreshold() - 1; i++) {
+                memberRepository.findByUsernameAndAgeGreaterThan("nPlusOne", i);
+            }
+            return null;
+        });
+
+        assertEquals(before + 1, counter.getSuspectedNPlusOneCount());
+    }
+
+    @Test
+    public void removeStopsCounting() {
+        SqlStatementCounter.reset();
+        try {
+            memberRepository.count();
+            assertEquals(1, SqlStatementCounter.current().getCount());
+        } finally {
+            SqlStatementCounter.remove();
+        }
+        memberRepository.count();
+        assertEquals(0, SqlStatementCounter.current().getCount());
+    }
+}